@@ -1,37 +1,104 @@
 package com.adventurequest;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.adventurequest.controller.GameController;
+import com.adventurequest.loader.AssetManifest;
+import com.adventurequest.loader.SpriteAtlas;
+import com.adventurequest.loader.SpriteLoader;
+import com.adventurequest.loader.TextureCache;
+import com.adventurequest.view.LoadingScreen;
 import com.adventurequest.view.Renderer;
 import com.adventurequest.view.MenuScreen;
 import com.adventurequest.view.SaveLoadScreen;
 public class AdventureQuestGame extends ApplicationAdapter {
-    private enum GameState { MENU, LOAD, SAVE, PLAYING }
+    private enum GameState { LOADING, MENU, LOAD, SAVE, PLAYING }
     private GameState currentState;
     private GameController gameController;
     private Renderer renderer;
     private SpriteBatch batch;
+    // Owns every asset of the AssetManifest
+    private AssetManager assets;
+    private LoadingScreen loadingScreen;
+    private SpriteLoader sprites;
+    // Render thread time per frame for uploading decoded images (ms)
+    private static final int UPLOAD_BUDGET_MILLIS = 4;
     private MenuScreen menuScreen;
     private SaveLoadScreen loadScreen;
     private SaveLoadScreen saveScreen;
+    // Run the simulation on its own thread (see SimulationThread)
+    private final boolean threadedSimulation;
+    // File to record the input log to (null = don't record)
+    private String recordPath;
+    // Parallel collision narrowphase (see CollisionManager.setParallel)
+    private boolean parallelCollisions;
+    public AdventureQuestGame() {
+        this(false);
+    }
+    public AdventureQuestGame(boolean threadedSimulation) {
+        this.threadedSimulation = threadedSimulation;
+    }
+    /**
+     * Record each game's input for replay (see ReplaySimulation)
+     * @param recordPath Input log file, relative to the local storage folder
+     */
+    public void setRecordPath(String recordPath) {
+        this.recordPath = recordPath;
+    }
+    /**
+     * Run the collision narrowphase in parallel on large scenes
+     */
+    public void setParallelCollisions(boolean parallelCollisions) {
+        this.parallelCollisions = parallelCollisions;
+    }
+    /**
+     * Start loading the assets; the game itself is built once they are loaded
+     */
     @Override
     public void create() {
-        currentState = GameState.MENU;
+        currentState = GameState.LOADING;
         batch = new SpriteBatch();
-        gameController = new GameController();
-        renderer = new Renderer(batch);
+        assets = new AssetManager();
+        AssetManifest.queue(assets);
+        loadingScreen = new LoadingScreen(assets);
+        Gdx.app.log("AdventureQuest", "Loading " + assets.getQueuedAssets() + " assets");
+    }
+    /**
+     * Build the controller, renderer and menus from the loaded assets
+     */
+    private void finishLoading() {
+        currentState = GameState.MENU;
+        sprites = new SpriteLoader(new TextureCache(),
+            new SpriteAtlas(assets, SpriteAtlas.DEFAULT_ATLASES));
+        gameController = new GameController(sprites, assets);
+        renderer = new Renderer(batch, assets);
         gameController.setRenderer(renderer);
+        gameController.setParallelCollisions(parallelCollisions);
+        if (recordPath != null) {
+            gameController.recordTo(Gdx.files.local(recordPath));
+        }
         boolean hasSaveFile = new java.io.File("saves/slot_1.dat").exists();
-        menuScreen = new MenuScreen(hasSaveFile);
-        loadScreen = new SaveLoadScreen(SaveLoadScreen.ScreenType.LOAD);
-        saveScreen = new SaveLoadScreen(SaveLoadScreen.ScreenType.SAVE);
+        menuScreen = new MenuScreen(hasSaveFile, AssetManifest.getBackgrounds(assets));
+        loadScreen = new SaveLoadScreen(SaveLoadScreen.ScreenType.LOAD, AssetManifest.getBackgrounds(assets));
+        saveScreen = new SaveLoadScreen(SaveLoadScreen.ScreenType.SAVE, AssetManifest.getBackgrounds(assets));
         Gdx.app.log("AdventureQuest", "🎮 Game created - showing menu");
     }
     @Override
     public void render() {
         float deltaTime = Gdx.graphics.getDeltaTime();
+        if (currentState == GameState.LOADING) {
+            boolean loaded = loadingScreen.update();
+            loadingScreen.render(batch);
+            if (loaded) {
+                loadingScreen.dispose();
+                loadingScreen = null;
+                finishLoading();
+            }
+            return;
+        }
+        sprites.update(UPLOAD_BUDGET_MILLIS);
         handleMenuInput();
         if (currentState == GameState.MENU) {
             menuScreen.render(batch);
@@ -43,7 +110,11 @@ public class AdventureQuestGame extends ApplicationAdapter {
             Gdx.gl.glClearColor(0, 0, 0, 1);
             Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
             gameController.update(deltaTime);
-            renderer.render(gameController.getGameState());
+            if (gameController.isSimulationThreaded()) {
+                renderer.render(gameController.acquireSnapshot(), deltaTime);
+            } else {
+                renderer.render(gameController.getGameState(), deltaTime);
+            }
         }
     }
     private void handleMenuInput() {
@@ -101,7 +172,7 @@ public class AdventureQuestGame extends ApplicationAdapter {
             if (currentState == GameState.LOAD || currentState == GameState.SAVE) {
                 currentState = GameState.MENU;
                 boolean hasSaveFile = new java.io.File("saves/slot_1.dat").exists();
-                menuScreen = new MenuScreen(hasSaveFile);
+                menuScreen = new MenuScreen(hasSaveFile, AssetManifest.getBackgrounds(assets));
             }
         }
     }
@@ -110,6 +181,9 @@ public class AdventureQuestGame extends ApplicationAdapter {
         switch (state) {
             case NEW_GAME:
                 gameController.initialize();
+                if (threadedSimulation) {
+                    gameController.startSimulationThread();
+                }
                 currentState = GameState.PLAYING;
                 Gdx.app.log("AdventureQuest", "🎮 Starting new game");
                 break;
@@ -126,16 +200,26 @@ public class AdventureQuestGame extends ApplicationAdapter {
      */
     @Override
     public void resize(int width, int height) {
-        renderer.resize(width, height);
+        if (renderer != null) {
+            renderer.resize(width, height);
+        }
     }
     @Override
     public void dispose() {
+        if (loadingScreen != null) {
+            // Closed while still loading
+            loadingScreen.dispose();
+        }
+        if (gameController != null) {
+            gameController.stopSimulationThread();
+            renderer.dispose();
+            gameController.dispose();
+            menuScreen.dispose();
+            loadScreen.dispose();
+            saveScreen.dispose();
+        }
         batch.dispose();
-        renderer.dispose();
-        gameController.dispose();
-        menuScreen.dispose();
-        loadScreen.dispose();
-        saveScreen.dispose();
+        assets.dispose();
         Gdx.app.log("AdventureQuest", "Game disposed");
     }
 }
@@ -0,0 +1,75 @@
+package com.adventurequest;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.adventurequest.controller.GameController;
+/**
+ * HeadlessSimulation - Runs the game simulation without a window
+ *
+ * - Loads one .tmx map without any texture (see HeadlessTmxMapLoader)
+ * - Steps GameController.tick back to back, as fast as the CPU allows
+ * - Logs progress every second and the final ticks per second
+ *
+ * Meant for the headless backend (see HeadlessLauncher) to soak-test
+ * maps on machines without a display.
+ */
+public class HeadlessSimulation extends ApplicationAdapter {
+    private final String mapPath;
+    private final long ticks;
+    private final int tickRate;
+    private boolean succeeded;
+    private boolean parallelCollisions;
+    /**
+     * @param mapPath Map to load (relative to assets folder)
+     * @param ticks Number of ticks to run
+     * @param tickRate Simulation ticks per simulated second
+     */
+    public HeadlessSimulation(String mapPath, long ticks, int tickRate) {
+        this.mapPath = mapPath;
+        this.ticks = ticks;
+        this.tickRate = tickRate;
+    }
+    @Override
+    public void create() {
+        GameController controller = new GameController(null);
+        controller.getTimestep().setTickRate(tickRate);
+        controller.setParallelCollisions(parallelCollisions);
+        if (!controller.initialize(mapPath)) {
+            Gdx.app.error("HeadlessSimulation", "Could not load map: " + mapPath);
+            Gdx.app.exit();
+            return;
+        }
+        float step = controller.getTimestep().getStep();
+        Gdx.app.log("HeadlessSimulation", "Running " + ticks + " ticks of " + mapPath
+            + " (" + controller.getGameState().getEntities().size() + " entities)");
+        long start = System.nanoTime();
+        long nextReport = start + 1_000_000_000L;
+        long reportedTicks = 0;
+        for (long i = 1; i <= ticks; i++) {
+            controller.tick(step);
+            long now = System.nanoTime();
+            if (now >= nextReport) {
+                Gdx.app.log("HeadlessSimulation", i + " ticks, " + (i - reportedTicks) + " ticks/s");
+                reportedTicks = i;
+                nextReport = now + 1_000_000_000L;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double ticksPerSecond = ticks / Math.max(seconds, 1e-9);
+        Gdx.app.log("HeadlessSimulation", String.format("Done: %d ticks in %.2f s = %.0f ticks/s (%.1fx real time at %d Hz)",
+            ticks, seconds, ticksPerSecond, ticksPerSecond / tickRate, tickRate));
+        succeeded = true;
+        Gdx.app.exit();
+    }
+    /**
+     * Run the collision narrowphase in parallel on large scenes (call before create)
+     */
+    public void setParallelCollisions(boolean parallelCollisions) {
+        this.parallelCollisions = parallelCollisions;
+    }
+    /**
+     * Check if the run completed
+     */
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+}
@@ -0,0 +1,81 @@
+package com.adventurequest;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.adventurequest.controller.GameController;
+import com.adventurequest.controller.InputLog;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+/**
+ * ReplaySimulation - Replays a recorded input log without a window
+ *
+ * - Starts the log's map with the recorded tick rate and RNG seeds
+ * - Feeds the recorded input to GameController.tick back to back, as
+ *   fast as the CPU allows
+ * - Prints "tick hash" (rolling state hash, hex) for every tick on stdout
+ * - Checks the final hash against the one stored in the log
+ *
+ * Diffing the output of two replays shows the first tick where they
+ * diverge. See ReplayLauncher.
+ */
+public class ReplaySimulation extends ApplicationAdapter {
+    private final String logPath;
+    private boolean succeeded;
+    /**
+     * @param logPath Input log, relative to the local storage folder
+     */
+    public ReplaySimulation(String logPath) {
+        this.logPath = logPath;
+    }
+    @Override
+    public void create() {
+        InputLog log;
+        try {
+            log = InputLog.load(Gdx.files.local(logPath));
+        } catch (IOException e) {
+            Gdx.app.error("ReplaySimulation", "Could not read input log " + logPath + ": " + e.getMessage());
+            Gdx.app.exit();
+            return;
+        }
+        GameController controller = new GameController(null);
+        if (!controller.startReplay(log)) {
+            Gdx.app.error("ReplaySimulation", "Could not load map: " + log.getMapPath());
+            Gdx.app.exit();
+            return;
+        }
+        Gdx.app.log("ReplaySimulation", "Replaying " + log.size() + " ticks of " + log.getMapPath()
+            + " at " + log.getTickRate() + " Hz (seed " + Long.toHexString(log.getSeed()) + ")");
+        // One line per tick: don't flush each one
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+        float step = controller.getTimestep().getStep();
+        long start = System.nanoTime();
+        for (int i = 1; i <= log.size(); i++) {
+            controller.tick(step);
+            out.print(i);
+            out.print(' ');
+            out.println(Long.toHexString(controller.getStateHash()));
+        }
+        out.flush();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double ticksPerSecond = log.size() / Math.max(seconds, 1e-9);
+        Gdx.app.log("ReplaySimulation", String.format("Done: %d ticks in %.2f s (%.1fx real time)",
+            log.size(), seconds, ticksPerSecond / log.getTickRate()));
+        long hash = controller.getStateHash();
+        if (hash == log.getFinalHash()) {
+            Gdx.app.log("ReplaySimulation", "Final hash " + Long.toHexString(hash) + " matches the recording");
+            succeeded = true;
+        } else {
+            Gdx.app.error("ReplaySimulation", "Diverged: final hash " + Long.toHexString(hash)
+                + ", recorded " + Long.toHexString(log.getFinalHash()));
+        }
+        Gdx.app.exit();
+    }
+    /**
+     * Check if the replay ran and ended on the recorded hash
+     */
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+}
@@ -1,46 +1,128 @@
 package com.adventurequest.controller;
+import com.adventurequest.model.EntityRegistry;
 import com.adventurequest.model.GameState;
+import com.adventurequest.model.entities.CollisionCategory;
 import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.entities.EntityStore;
+import com.adventurequest.model.entities.Obstacle;
+import com.adventurequest.model.entities.Player;
 import com.adventurequest.model.entities.PowerUp;
 import com.adventurequest.model.interfaces.Collidable;
+import com.adventurequest.model.world.GameMap;
+import com.adventurequest.model.world.StaticAabbTree;
+import java.util.Arrays;
 import java.util.List;
-public class CollisionManager {
-    float dmgCd = 0f;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+public class CollisionManager implements ContactCache.Listener {
     static final float DMG_INT = 0.5f;
+    // Below this many moving entities the fork/join overhead isn't worth it
+    static final int PARALLEL_MIN_DYNAMIC = 1024;
+    // Simulation clock used to stamp contacts and per-contact cooldowns
+    float time = 0f;
+    ContactCache contacts = new ContactCache();
     boolean first = true;
+    // Broadphase: dynamic entity slots (list index) -> tile cells
+    SpatialHash broadphase = new SpatialHash(32, 32);
+    Entity[] tracked = new Entity[16];
+    boolean[] inTree = new boolean[16];
+    int trackedCount = 0;
+    int[] dynamicSlots = new int[16];
+    int dynamicCount = 0;
+    // Static colliders of the current map (built at load time)
+    StaticAabbTree staticTree = null;
+    StaticAabbTree.Query treeQuery = new StaticAabbTree.Query();
+    // Candidate pairs packed as (lowIndex << 32 | highIndex)
+    long[] pairs = new long[64];
+    int pairCount = 0;
+    // True when the pairs were already contact-tested (parallel path)
+    boolean pairsTested = false;
+    // Parallel narrowphase: cells and dynamic entities split into chunks, one output buffer each
+    boolean parallel = false;
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    PairChunk[] chunks = new PairChunk[0];
+    /**
+     * Output of one parallel narrowphase chunk
+     */
+    static class PairChunk {
+        long[] pairs = new long[64];
+        int size;
+        StaticAabbTree.Query query = new StaticAabbTree.Query();
+        void add(int low, int high) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            pairs[size++] = ((long) low << 32) | (high & 0xffffffffL);
+        }
+    }
+    /**
+     * Response to a touching pair, looked up by the categories of both sides
+     */
+    interface PairHandler {
+        void handle(Entity a, Entity b, int contact);
+    }
+    PairHandler[][] handlers = new PairHandler[CollisionCategory.COUNT][CollisionCategory.COUNT];
     com.adventurequest.view.Renderer rend = null;
+    // Registry of the current pass, used to wake entities on contact
+    EntityRegistry registry;
+    public CollisionManager() {
+        contacts.setListener(this);
+        register(CollisionCategory.PLAYER, CollisionCategory.OBSTACLE, (a, b, c) -> dmgPly((Player) a, (Obstacle) b, c));
+        register(CollisionCategory.PLAYER, CollisionCategory.HEAL, (a, b, c) -> healPly((Player) a, (Obstacle) b, c));
+    }
+    /**
+     * Register a pair response for both argument orders
+     */
+    private void register(int categoryA, int categoryB, PairHandler handler) {
+        int ia = CollisionCategory.indexOf(categoryA);
+        int ib = CollisionCategory.indexOf(categoryB);
+        handlers[ia][ib] = handler;
+        handlers[ib][ia] = (a, b, c) -> handler.handle(b, a, c);
+    }
     public void setRenderer(com.adventurequest.view.Renderer r) {
         this.rend = r;
     }
-    public void checkCollisions(GameState gameState) {
-        if (dmgCd > 0) {
-            dmgCd -= com.badlogic.gdx.Gdx.graphics.getDeltaTime();
-        }
+    /**
+     * Run one collision pass
+     * @param deltaTime Length of the simulation step in seconds
+     */
+    public void checkCollisions(GameState gameState, float deltaTime) {
+        time += deltaTime;
         if (gameState == null) return;
-        List<Entity> entities = gameState.getEntities();
+        EntityStore store = gameState.getStore();
+        registry = gameState.getRegistry();
         if (first) {
             int cnt = 0;
-            for (Entity e : entities) {
-                if (e instanceof com.adventurequest.model.entities.Obstacle) {
-                    com.adventurequest.model.entities.Obstacle obs = (com.adventurequest.model.entities.Obstacle) e;
+            for (int i = 0; i < store.size(); i++) {
+                if (store.get(i) instanceof Obstacle) {
                     cnt++;
                 }
             }
             com.badlogic.gdx.Gdx.app.log("CollisionManager", "Total obstacles: " + cnt);
             first = false;
         }
-        for (int i = 0; i < entities.size(); i++) {
-            Entity a = entities.get(i);
-            if (!a.isActive()) continue;
-            for (int j = i + 1; j < entities.size(); j++) {
-                Entity b = entities.get(j);
-                if (!b.isActive()) continue;
-                if (a.overlaps(b)) {
-                    hdlCol(a, b);
-                }
+        syncBroadphase(store, gameState.getCurrentMap());
+        if (parallel && dynamicCount >= PARALLEL_MIN_DYNAMIC) {
+            collectContactsParallel(store);
+            pairsTested = true;
+        } else {
+            collectPairs(store);
+            pairsTested = false;
+        }
+        // Pairs are sorted by slot, so responses run in the same order as an all-pairs scan
+        contacts.beginFrame(time);
+        for (int k = 0; k < pairCount; k++) {
+            int i = (int) (pairs[k] >>> 32);
+            int j = (int) pairs[k];
+            if (!store.isActive(i) || !store.isActive(j)) continue;
+            Entity a = store.get(i);
+            Entity b = store.get(j);
+            if (pairsTested || a.touches(b)) {
+                contacts.touch(a, b);
             }
         }
-        com.adventurequest.model.entities.Player p = gameState.getPlayer();
+        contacts.endFrame();
+        Player p = gameState.getPlayer();
         if (p != null) {
             List<PowerUp> pus = gameState.getPowerUps();
             for (int i = 0; i < pus.size(); i++) {
@@ -52,50 +134,259 @@ public class CollisionManager {
             }
         }
     }
-    private void hdlCol(Entity a, Entity b) {
-        if (a instanceof Collidable) {
-            ((Collidable) a).onCollision(b);
+    /**
+     * Bring the broadphase in line with the entity store.
+     * Static colliders owned by the map's tree stay out of the hash;
+     * only dynamic slots whose entity changed or moved to another cell are re-bucketed.
+     */
+    private void syncBroadphase(EntityStore store, GameMap map) {
+        float cw = map != null ? map.getTileWidth() : 32f;
+        float ch = map != null ? map.getTileHeight() : 32f;
+        StaticAabbTree tree = map != null ? map.getStaticTree() : null;
+        if (cw != broadphase.getCellWidth() || ch != broadphase.getCellHeight() || tree != staticTree) {
+            broadphase.reset(cw, ch);
+            Arrays.fill(tracked, null);
+            staticTree = tree;
         }
-        if (b instanceof Collidable) {
-            ((Collidable) b).onCollision(a);
+        int size = store.size();
+        if (tracked.length < size) {
+            int cap = Math.max(size, tracked.length * 2);
+            tracked = Arrays.copyOf(tracked, cap);
+            inTree = Arrays.copyOf(inTree, cap);
+            dynamicSlots = Arrays.copyOf(dynamicSlots, cap);
         }
-        if (a instanceof com.adventurequest.model.entities.Player && b instanceof com.adventurequest.model.entities.Obstacle) {
-            com.adventurequest.model.entities.Obstacle o = (com.adventurequest.model.entities.Obstacle) b;
-            dmgPly((com.adventurequest.model.entities.Player) a, o);
-        } else if (b instanceof com.adventurequest.model.entities.Player && a instanceof com.adventurequest.model.entities.Obstacle) {
-            com.adventurequest.model.entities.Obstacle o = (com.adventurequest.model.entities.Obstacle) a;
-            dmgPly((com.adventurequest.model.entities.Player) b, o);
-        }
-    }
-    private void dmgPly(com.adventurequest.model.entities.Player p, com.adventurequest.model.entities.Obstacle o) {
-        if (o.getObstacleType().contains("heal")) {
-            if (dmgCd <= 0) {
-                float oh = p.getHealth();
-                float mh = p.getMaxHealth();
-                float nh = Math.min(oh + 20f, mh);
-                p.setHealth(nh);
-                dmgCd = DMG_INT;
-                com.badlogic.gdx.Gdx.app.log("Collision", "🟢 HEALED! +20 HP [" + nh + "/" + mh + "]");
-                if (rend != null) {
-                    rend.createHealEffect(o.getX() + o.getWidth()/2, o.getY() + o.getHeight()/2, 20);
-                }
+        dynamicCount = 0;
+        for (int i = 0; i < size; i++) {
+            Entity e = store.get(i);
+            if (tracked[i] != e) {
+                broadphase.remove(i);
+                tracked[i] = e;
+                inTree[i] = staticTree != null && store.isStatic(i) && staticTree.contains(e);
             }
-        } else {
-            if (dmgCd <= 0) {
-                boolean d = p.damage(15f);
-                dmgCd = DMG_INT;
-                com.badlogic.gdx.Gdx.app.log("Collision", "💥 DAMAGE! " + o.getObstacleType() + " -15 HP");
-                if (rend != null) {
-                    rend.createDamageEffect(p.getX() + p.getWidth()/2, p.getY() + p.getHeight()/2, 15);
+            if (inTree[i]) continue;
+            if (store.isActive(i)) {
+                broadphase.update(i, store.getX(i), store.getY(i), store.getWidth(i), store.getHeight(i));
+                dynamicSlots[dynamicCount++] = i;
+            } else {
+                broadphase.remove(i);
+            }
+        }
+        for (int i = size; i < trackedCount; i++) {
+            broadphase.remove(i);
+            tracked[i] = null;
+        }
+        trackedCount = size;
+    }
+    /**
+     * Gather candidate pairs: dynamic vs dynamic through the hash,
+     * dynamic vs static through the tree. Static vs static pairs are never tested.
+     */
+    private void collectPairs(EntityStore store) {
+        pairCount = 0;
+        for (int d = 0; d < dynamicCount; d++) {
+            int i = dynamicSlots[d];
+            int n = broadphase.gatherCandidates(i, i);
+            int[] c = broadphase.getCandidates();
+            for (int k = 0; k < n; k++) {
+                if (store.canCollide(i, c[k])) {
+                    addPair(i, c[k]);
                 }
-                if (d) {
-                    com.badlogic.gdx.Gdx.app.log("Collision", "☠️ PLAYER DIED! Respawning...");
-                    p.revive();
+            }
+            // Don't walk the tree if nothing in it can interact with this entity
+            if (staticTree == null || (store.getMask(i) & staticTree.getCategories()) == 0) continue;
+            int hits = staticTree.query(store.getX(i), store.getY(i), store.getWidth(i), store.getHeight(i), treeQuery);
+            for (int h = 0; h < hits; h++) {
+                Entity s = treeQuery.get(h);
+                if (!acceptStatic(store, i, s)) continue;
+                int j = s.getIndex();
+                addPair(Math.min(i, j), Math.max(i, j));
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+    }
+    /**
+     * Check a tree hit: skip colliders that are not (or no longer) part of
+     * this game state, and ones the filter rejects
+     */
+    private boolean acceptStatic(EntityStore store, int i, Entity s) {
+        int j = s.getIndex();
+        if (s.getStore() != store || !store.isActive(j)) {
+            return false;
+        }
+        return store.canCollide(i, j);
+    }
+    /**
+     * Parallel version of {@link #collectPairs(EntityStore)}: workers test overlaps
+     * into their own chunk buffers, then the chunks are merged and sorted so
+     * contact callbacks run on this thread in the same order as the sequential path.
+     */
+    private void collectContactsParallel(EntityStore store) {
+        int n = pool.getParallelism() * 4;
+        if (chunks.length != n) {
+            chunks = new PairChunk[n];
+            for (int c = 0; c < n; c++) {
+                chunks[c] = new PairChunk();
+            }
+        }
+        pool.invoke(new NarrowphaseTask(store, 0, n));
+        pairCount = 0;
+        for (PairChunk chunk : chunks) {
+            if (pairCount + chunk.size > pairs.length) {
+                pairs = Arrays.copyOf(pairs, Math.max(pairs.length * 2, pairCount + chunk.size));
+            }
+            System.arraycopy(chunk.pairs, 0, pairs, pairCount, chunk.size);
+            pairCount += chunk.size;
+        }
+        Arrays.sort(pairs, 0, pairCount);
+    }
+    /**
+     * Splits the chunk range down to single chunks
+     */
+    private class NarrowphaseTask extends RecursiveAction {
+        private final EntityStore store;
+        private final int from;
+        private final int to;
+        NarrowphaseTask(EntityStore store, int from, int to) {
+            this.store = store;
+            this.from = from;
+            this.to = to;
+        }
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new NarrowphaseTask(store, from, mid), new NarrowphaseTask(store, mid, to));
+                return;
+            }
+            narrowphaseChunk(store, from);
+        }
+    }
+    /**
+     * Test one chunk's share of the cells (dynamic vs dynamic, each pair only in
+     * the cell that owns it) and of the dynamic entities (vs the static tree).
+     * Only reads shared state; writes go to the chunk's own buffer.
+     */
+    private void narrowphaseChunk(EntityStore store, int c) {
+        PairChunk out = chunks[c];
+        out.size = 0;
+        int n = chunks.length;
+        int bucketCount = broadphase.getBucketCount();
+        for (int b = (int) ((long) bucketCount * c / n), end = (int) ((long) bucketCount * (c + 1) / n); b < end; b++) {
+            int[] items = broadphase.getBucketItems(b);
+            int size = broadphase.getBucketSize(b);
+            for (int k = 0; k < size; k++) {
+                for (int l = k + 1; l < size; l++) {
+                    int i = Math.min(items[k], items[l]);
+                    int j = Math.max(items[k], items[l]);
+                    if (!broadphase.ownsPair(b, i, j) || !store.canCollide(i, j)) continue;
+                    if (store.get(i).touches(store.get(j))) {
+                        out.add(i, j);
+                    }
                 }
             }
         }
+        if (staticTree == null) return;
+        for (int d = (int) ((long) dynamicCount * c / n), end = (int) ((long) dynamicCount * (c + 1) / n); d < end; d++) {
+            int i = dynamicSlots[d];
+            if ((store.getMask(i) & staticTree.getCategories()) == 0) continue;
+            int hits = staticTree.query(store.getX(i), store.getY(i), store.getWidth(i), store.getHeight(i), out.query);
+            for (int h = 0; h < hits; h++) {
+                Entity s = out.query.get(h);
+                if (!acceptStatic(store, i, s) || !store.get(i).touches(s)) continue;
+                int j = s.getIndex();
+                out.add(Math.min(i, j), Math.max(i, j));
+            }
+        }
+    }
+    /**
+     * Enable the parallel narrowphase for large scenes.
+     * Contact events are still raised on the calling thread, in the same order.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+    public boolean isParallel() {
+        return parallel;
+    }
+    private void addPair(int low, int high) {
+        if (pairCount == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairCount * 2);
+        }
+        pairs[pairCount++] = ((long) low << 32) | (high & 0xffffffffL);
+    }
+    /**
+     * A pair started touching: notify the entities once, then respond
+     */
+    @Override
+    public void onEnter(Entity a, Entity b, int contact) {
+        registry.wake(a);
+        registry.wake(b);
+        if (a instanceof Collidable) {
+            ((Collidable) a).onCollision(b);
+        }
+        if (b instanceof Collidable) {
+            ((Collidable) b).onCollision(a);
+        }
+        hdlCol(a, b, contact);
+    }
+    /**
+     * A pair is still touching: repeating responses run on their own cooldown
+     */
+    @Override
+    public void onStay(Entity a, Entity b, int contact) {
+        hdlCol(a, b, contact);
+    }
+    @Override
+    public void onExit(Entity a, Entity b, int contact) {
+        // Nothing to undo yet
+    }
+    private void hdlCol(Entity a, Entity b, int contact) {
+        PairHandler h = handlers[CollisionCategory.indexOf(a.getCollisionCategory())][CollisionCategory.indexOf(b.getCollisionCategory())];
+        if (h != null) {
+            h.handle(a, b, contact);
+        }
+    }
+    /**
+     * Check and restart the per-contact cooldown
+     * @return true if the response may fire now
+     */
+    private boolean tick(int contact) {
+        if (contacts.getNextTick(contact) > time) {
+            return false;
+        }
+        contacts.setNextTick(contact, time + DMG_INT);
+        return true;
+    }
+    /**
+     * Heal the player; each heal rock keeps its own cooldown
+     */
+    private void healPly(Player p, Obstacle o, int contact) {
+        if (!tick(contact)) return;
+        float oh = p.getHealth();
+        float mh = p.getMaxHealth();
+        float nh = Math.min(oh + 20f, mh);
+        p.setHealth(nh);
+        com.badlogic.gdx.Gdx.app.log("Collision", "🟢 HEALED! +20 HP [" + nh + "/" + mh + "]");
+        if (rend != null) {
+            rend.createHealEffect(o.getX() + o.getWidth()/2, o.getY() + o.getHeight()/2, 20);
+        }
+    }
+    /**
+     * Damage the player; each obstacle keeps its own cooldown
+     */
+    private void dmgPly(Player p, Obstacle o, int contact) {
+        if (!tick(contact)) return;
+        boolean d = p.damage(15f);
+        com.badlogic.gdx.Gdx.app.log("Collision", "💥 DAMAGE! " + o.getObstacleType() + " -15 HP");
+        if (rend != null) {
+            rend.createDamageEffect(p.getX() + p.getWidth()/2, p.getY() + p.getHeight()/2, 15);
+        }
+        if (d) {
+            com.badlogic.gdx.Gdx.app.log("Collision", "☠️ PLAYER DIED! Respawning...");
+            p.revive();
+        }
     }
-    private void applyPU(com.adventurequest.model.entities.Player p, PowerUp pu) {
+    private void applyPU(Player p, PowerUp pu) {
         switch (pu.getType()) {
             case HP:
                 float h = Math.min(pu.getValue(), p.getMaxHealth() - p.getHealth());
@@ -120,17 +411,13 @@ public class CollisionManager {
         }
     }
     /**
-     * Check if an entity would collide with map collision layer
+     * Check if a box placed at a position would overlap the current map's
+     * collision layer (every tile under it, not just the corners)
      */
-    public boolean wouldCollideWithMap(Entity entity, GameState gameState, float newX, float newY) {
+    public boolean wouldCollideWithMap(GameState gameState, float x, float y, float width, float height) {
         if (gameState.getCurrentMap() == null) {
             return false;
         }
-        // Check corners of the entity bounds
-        boolean topLeft = gameState.getCurrentMap().isCollisionAt(newX, newY + entity.getHeight());
-        boolean topRight = gameState.getCurrentMap().isCollisionAt(newX + entity.getWidth(), newY + entity.getHeight());
-        boolean bottomLeft = gameState.getCurrentMap().isCollisionAt(newX, newY);
-        boolean bottomRight = gameState.getCurrentMap().isCollisionAt(newX + entity.getWidth(), newY);
-        return topLeft || topRight || bottomLeft || bottomRight;
+        return gameState.getCurrentMap().isAreaSolid(x, y, width, height);
     }
 }
@@ -0,0 +1,263 @@
+package com.adventurequest.controller;
+import com.adventurequest.model.entities.Entity;
+import java.util.Arrays;
+/**
+ * ContactCache - Persistent table of touching entity pairs
+ *
+ * Pairs are keyed by a primitive long built from the two entity serials
+ * (low serial in the high word). Serials, unlike store slots, don't change
+ * when another entity is removed, so a contact and its cooldowns survive
+ * the swap-remove that moves the last slot into the hole. Contacts live in dense parallel arrays,
+ * with an open addressing table mapping key -> contact id, so tracking a
+ * pair never allocates.
+ *
+ * Each frame the collision pass calls {@link #touch(Entity, Entity)} for
+ * every overlapping pair, then {@link #endFrame()}:
+ * - a pair seen for the first time raises onEnter
+ * - a pair seen again raises onStay
+ * - a pair that was not seen this frame raises onExit
+ *
+ * An exited pair is kept until its cooldown (nextTick) has passed, so
+ * stepping off and back on an obstacle raises onEnter again but doesn't
+ * restart the damage or heal cooldown.
+ */
+public class ContactCache {
+    private static final int EMPTY = -1;
+    /**
+     * Receives contact events. {@code contact} is the id to use with the
+     * per-contact accessors; it is only valid during the callback.
+     */
+    public interface Listener {
+        void onEnter(Entity a, Entity b, int contact);
+        void onStay(Entity a, Entity b, int contact);
+        void onExit(Entity a, Entity b, int contact);
+    }
+    private Listener listener;
+    // Hash table: key -> contact id
+    private long[] tableKeys;
+    private int[] tableIds;
+    // Dense contact storage
+    private long[] keys;
+    private Entity[] first;
+    private Entity[] second;
+    private float[] beganAt;
+    private float[] nextTick;
+    private int[] lastFrame;
+    // False once a pair has exited (record kept for its cooldown)
+    private boolean[] touching;
+    private int count;
+    private int frame;
+    private float time;
+    public ContactCache() {
+        this.tableKeys = new long[64];
+        this.tableIds = new int[64];
+        Arrays.fill(tableIds, EMPTY);
+        this.keys = new long[16];
+        this.first = new Entity[16];
+        this.second = new Entity[16];
+        this.beganAt = new float[16];
+        this.nextTick = new float[16];
+        this.lastFrame = new int[16];
+        this.touching = new boolean[16];
+    }
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+    /**
+     * Start a collision pass
+     * @param time Current simulation time in seconds
+     */
+    public void beginFrame(float time) {
+        this.time = time;
+        frame++;
+    }
+    /**
+     * Report that two entities overlap this frame
+     * @return contact id
+     */
+    public int touch(Entity a, Entity b) {
+        if (b.getSerial() < a.getSerial()) {
+            Entity t = a;
+            a = b;
+            b = t;
+        }
+        long key = key(a.getSerial(), b.getSerial());
+        int id = find(key);
+        if (id == EMPTY || !touching[id]) {
+            if (id == EMPTY) {
+                id = insert(key, a, b);
+            } else {
+                // Re-entry while the cooldown of the last contact runs
+                beganAt[id] = time;
+            }
+            lastFrame[id] = frame;
+            touching[id] = true;
+            if (listener != null) {
+                listener.onEnter(a, b, id);
+            }
+        } else if (lastFrame[id] != frame) {
+            lastFrame[id] = frame;
+            if (listener != null) {
+                listener.onStay(a, b, id);
+            }
+        }
+        return id;
+    }
+    /**
+     * Finish a collision pass: every contact not touched this frame exits,
+     * and exited contacts whose cooldown has passed are dropped
+     */
+    public void endFrame() {
+        int i = 0;
+        while (i < count) {
+            if (lastFrame[i] != frame) {
+                if (touching[i]) {
+                    touching[i] = false;
+                    if (listener != null) {
+                        listener.onExit(first[i], second[i], i);
+                    }
+                }
+                if (nextTick[i] <= time) {
+                    remove(i); // swaps the last contact into i
+                    continue;
+                }
+            }
+            i++;
+        }
+    }
+    /**
+     * Drop every contact without raising events
+     */
+    public void clear() {
+        Arrays.fill(tableIds, EMPTY);
+        Arrays.fill(first, 0, count, null);
+        Arrays.fill(second, 0, count, null);
+        count = 0;
+    }
+    // Per-contact accessors
+    public float getBeganAt(int contact) {
+        return beganAt[contact];
+    }
+    public float getDuration(int contact) {
+        return time - beganAt[contact];
+    }
+    /**
+     * Time before which a repeating response (damage, heal) should not fire again
+     */
+    public float getNextTick(int contact) {
+        return nextTick[contact];
+    }
+    public void setNextTick(int contact, float nextTick) {
+        this.nextTick[contact] = nextTick;
+    }
+    /**
+     * Number of pairs touching or still cooling down
+     */
+    public int size() {
+        return count;
+    }
+    public static long key(int lowSerial, int highSerial) {
+        return ((long) lowSerial << 32) | (highSerial & 0xffffffffL);
+    }
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    private int find(long key) {
+        int mask = tableKeys.length - 1;
+        int i = hash(key) & mask;
+        while (tableIds[i] != EMPTY) {
+            if (tableKeys[i] == key) {
+                return tableIds[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return EMPTY;
+    }
+    private int insert(long key, Entity a, Entity b) {
+        if ((count + 1) * 2 > tableKeys.length) {
+            rehash(tableKeys.length * 2);
+        }
+        if (count == keys.length) {
+            int size = count * 2;
+            keys = Arrays.copyOf(keys, size);
+            first = Arrays.copyOf(first, size);
+            second = Arrays.copyOf(second, size);
+            beganAt = Arrays.copyOf(beganAt, size);
+            nextTick = Arrays.copyOf(nextTick, size);
+            lastFrame = Arrays.copyOf(lastFrame, size);
+            touching = Arrays.copyOf(touching, size);
+        }
+        int id = count++;
+        keys[id] = key;
+        first[id] = a;
+        second[id] = b;
+        beganAt[id] = time;
+        nextTick[id] = 0f;
+        setSlot(key, id);
+        return id;
+    }
+    /**
+     * Swap-remove a dense contact and fix up the hash table
+     */
+    private void remove(int id) {
+        deleteSlot(keys[id]);
+        int last = --count;
+        if (id != last) {
+            keys[id] = keys[last];
+            first[id] = first[last];
+            second[id] = second[last];
+            beganAt[id] = beganAt[last];
+            nextTick[id] = nextTick[last];
+            lastFrame[id] = lastFrame[last];
+            touching[id] = touching[last];
+            setSlot(keys[id], id);
+        }
+        first[last] = null;
+        second[last] = null;
+    }
+    private void setSlot(long key, int id) {
+        int mask = tableKeys.length - 1;
+        int i = hash(key) & mask;
+        while (tableIds[i] != EMPTY && tableKeys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        tableKeys[i] = key;
+        tableIds[i] = id;
+    }
+    /**
+     * Linear probing delete with backward shift (no tombstones)
+     */
+    private void deleteSlot(long key) {
+        int mask = tableKeys.length - 1;
+        int i = hash(key) & mask;
+        while (tableIds[i] != EMPTY && tableKeys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (tableIds[i] == EMPTY) {
+            return;
+        }
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (tableIds[j] != EMPTY) {
+            int home = hash(tableKeys[j]) & mask;
+            // Move j into the hole if its home is not cyclically in (hole, j]
+            boolean between = hole <= j ? (home > hole && home <= j) : (home > hole || home <= j);
+            if (!between) {
+                tableKeys[hole] = tableKeys[j];
+                tableIds[hole] = tableIds[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        tableIds[hole] = EMPTY;
+    }
+    private void rehash(int size) {
+        tableKeys = new long[size];
+        tableIds = new int[size];
+        Arrays.fill(tableIds, EMPTY);
+        for (int id = 0; id < count; id++) {
+            setSlot(keys[id], id);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.adventurequest.controller;
+/**
+ * FixedTimestep - Turns variable frame times into fixed simulation steps
+ *
+ * - Each frame's elapsed time goes into an accumulator that is consumed
+ *   in steps of 1 / tickRate seconds
+ * - At most maxStepsPerFrame steps run per frame; time beyond that is
+ *   dropped, so one slow frame can't snowball into ever slower frames
+ *   (the "spiral of death")
+ * - What is left in the accumulator, as a fraction of a step, is the
+ *   interpolation alpha for rendering
+ */
+public class FixedTimestep {
+    public static final int DEFAULT_TICK_RATE = 60;
+    public static final int DEFAULT_MAX_STEPS_PER_FRAME = 5;
+    private int tickRate;
+    private float step;
+    private int maxStepsPerFrame;
+    private float accumulator;
+    private long ticks;
+    private long droppedSteps;
+    public FixedTimestep() {
+        this(DEFAULT_TICK_RATE, DEFAULT_MAX_STEPS_PER_FRAME);
+    }
+    /**
+     * @param tickRate Simulation steps per second
+     * @param maxStepsPerFrame Most steps run for a single frame
+     */
+    public FixedTimestep(int tickRate, int maxStepsPerFrame) {
+        setTickRate(tickRate);
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+    }
+    /**
+     * Add a frame's elapsed time
+     * @return number of steps to run this frame
+     */
+    public int advance(float frameTime) {
+        accumulator += Math.max(0f, frameTime);
+        int steps = (int) (accumulator / step);
+        if (steps > maxStepsPerFrame) {
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator -= (int) (accumulator / step) * step;
+        } else {
+            accumulator -= steps * step;
+        }
+        ticks += steps;
+        return steps;
+    }
+    /**
+     * Fraction of a step left over after the last advance (0..1)
+     */
+    public float getAlpha() {
+        return Math.min(1f, accumulator / step);
+    }
+    /**
+     * Forget pending time (after loading, unpausing, ...)
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+    public void setTickRate(int tickRate) {
+        this.tickRate = Math.max(1, tickRate);
+        this.step = 1f / this.tickRate;
+    }
+    public int getTickRate() {
+        return tickRate;
+    }
+    /**
+     * Length of one step in seconds
+     */
+    public float getStep() {
+        return step;
+    }
+    public void setMaxStepsPerFrame(int maxStepsPerFrame) {
+        this.maxStepsPerFrame = Math.max(1, maxStepsPerFrame);
+    }
+    public int getMaxStepsPerFrame() {
+        return maxStepsPerFrame;
+    }
+    /**
+     * Total steps run so far
+     */
+    public long getTicks() {
+        return ticks;
+    }
+    /**
+     * Steps skipped by the per-frame cap
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
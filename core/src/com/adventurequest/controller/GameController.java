@@ -1,32 +1,80 @@
 package com.adventurequest.controller;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
 import com.adventurequest.model.GameState;
+import com.adventurequest.model.entities.Entity;
 import com.adventurequest.model.entities.Player;
 import com.adventurequest.model.entities.PowerUp;
 import com.adventurequest.model.world.GameMap;
+import com.adventurequest.loader.EntityFactory;
+import com.adventurequest.loader.SpriteLoader;
 import com.adventurequest.loader.TiledMapLoader;
+import com.adventurequest.view.RenderSnapshot;
+import com.adventurequest.view.Renderer;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 public class GameController {
+    // Positions drawn for a power-up before giving up on it
+    private static final int POWERUP_SPAWN_ATTEMPTS = 8;
     private GameState gameState;
     private InputHandler inputHandler;
     private CollisionManager collisionManager;
     private TiledMapLoader mapLoader;
     private PortalManager portalManager;
     private SaveLoadManager saveLoadManager;
+    // Loads entity textures (null when running headless)
+    private SpriteLoader sprites;
+    // Fixed simulation rate, independent of the frame rate
+    private FixedTimestep timestep;
+    // Optional mode: ticks run on their own thread and publish render snapshots
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+    private SimulationThread simulationThread;
+    private Renderer renderer;
+    // RNG seeds of the current run; a replay reuses the recorded ones
+    private long seed;
+    private long effectSeed;
+    private boolean seedsFixed;
+    private final Random random = new Random();
+    // Map the current run started on (null for the built-in test map)
+    private String startMapPath;
+    // Where the input of each run is recorded (null = not recording)
+    private FileHandle recordFile;
+    // Log being recorded or replayed, and the rolling state hash that goes with it
+    private InputLog inputLog;
+    private long stateHash = StateHasher.INITIAL;
     /**
      * Constructor
+     * @param sprites Loads entity textures, or null to run without graphics (headless)
      */
-    public GameController() {
+    public GameController(SpriteLoader sprites) {
+        this(sprites, null);
+    }
+    /**
+     * Constructor
+     * @param sprites Loads entity textures, or null to run without graphics (headless)
+     * @param assets Preloaded maps (see AssetManifest), or null to load maps from their files
+     */
+    public GameController(SpriteLoader sprites, AssetManager assets) {
+        this.sprites = sprites;
         this.gameState = new GameState();
         this.inputHandler = new InputHandler();
         this.collisionManager = new CollisionManager();
-        this.mapLoader = new TiledMapLoader();
-        this.portalManager = new PortalManager();
+        this.mapLoader = new TiledMapLoader(sprites, assets);
+        this.portalManager = new PortalManager(mapLoader);
         this.saveLoadManager = new SaveLoadManager();
+        this.timestep = new FixedTimestep();
+        // Maps leaving the world free their TiledMap and give their entities' textures back
+        gameState.getWorld().setListener(this::disposeMap);
     }
     /**
      * Set renderer for visual effects
      */
-    public void setRenderer(com.adventurequest.view.Renderer renderer) {
+    public void setRenderer(Renderer renderer) {
+        this.renderer = renderer;
         this.collisionManager.setRenderer(renderer);
         this.portalManager.setRenderer(renderer);
     }
@@ -34,18 +82,18 @@ public class GameController {
      * Initialize the game
      */
     public void initialize() {
-        // Create player
-        Player player = new Player("player1", 200, 200);
-        player.setSpawn(200, 200);
         // Try to load battle_arena as main starting map
         GameMap gameMap = null;
+        startMapPath = null;
         try {
             gameMap = mapLoader.loadMap("maps/battle_arena.tmx");
+            startMapPath = "maps/battle_arena.tmx";
             Gdx.app.log("GameController", "🎮 Loaded battle_arena as main map");
         } catch (Exception e) {
             Gdx.app.log("GameController", "Could not load battle_arena, trying seaport_mega");
             try {
                 gameMap = mapLoader.loadMap("maps/seaport_mega.tmx");
+                startMapPath = "maps/seaport_mega.tmx";
             } catch (Exception e2) {
                 Gdx.app.log("GameController", "Could not load any map, using test map");
             }
@@ -54,6 +102,44 @@ public class GameController {
         if (gameMap == null) {
             gameMap = new GameMap("test_map", null);
         }
+        start(gameMap);
+    }
+    /**
+     * Initialize the game on a given map
+     * @param mapPath Path to the .tmx file (relative to assets folder)
+     * @return false if the map could not be loaded
+     */
+    public boolean initialize(String mapPath) {
+        GameMap gameMap = mapLoader.loadMap(mapPath);
+        if (gameMap == null) {
+            return false;
+        }
+        startMapPath = mapPath;
+        start(gameMap);
+        return true;
+    }
+    /**
+     * Create the player and start a game on a loaded map
+     */
+    private void start(GameMap gameMap) {
+        Player previousPlayer = gameState.getPlayer();
+        // Seed the run: everything random in the simulation draws from these
+        if (!seedsFixed) {
+            seed = ThreadLocalRandom.current().nextLong();
+            effectSeed = ThreadLocalRandom.current().nextLong();
+        }
+        seedsFixed = false;
+        random.setSeed(seed);
+        if (renderer != null) {
+            renderer.setEffectSeed(effectSeed);
+        }
+        // Create player
+        Player player = new Player("player1", 200, 200);
+        player.setSpawn(200, 200);
+        EntityFactory.applyCollisionFilter(player);
+        if (sprites != null) {
+            sprites.apply(player);
+        }
         // Set map boundaries on player to prevent leaving map
         if (gameMap != null) {
             float mapWidthPixels = gameMap.getMapWidth() * gameMap.getTileWidth();
@@ -63,42 +149,183 @@ public class GameController {
         }
         // Initialize game state
         gameState.initialize(player, gameMap);
+        if (sprites != null && previousPlayer != null) {
+            sprites.release(previousPlayer);
+        }
         // Spawn power-ups in the map
-        spawnPowerUps(gameState);
+        spawnPowerUps(gameState, random);
         Gdx.app.log("GameController", "Game initialized");
         Gdx.app.log("GameController", "Entities in map: " + gameState.getEntities().size());
+        timestep.reset();
+        stateHash = StateHasher.INITIAL;
+        if (recordFile != null) {
+            finishRecording();
+            inputLog = new InputLog(startMapPath == null ? "" : startMapPath, timestep.getTickRate(), seed, effectSeed);
+            inputHandler.record(inputLog);
+            Gdx.app.log("GameController", "Recording input to " + recordFile.path());
+        }
+    }
+    /**
+     * Dispose a map that left the world (on the render thread, which owns its textures)
+     */
+    private void disposeMap(GameMap map) {
+        SimulationThread.runOnRenderThread(() -> map.dispose(sprites));
     }
     /**
-     * Update game logic
+     * Advance the game by one rendered frame: runs as many fixed ticks as
+     * the elapsed time covers, then sets the render interpolation alpha
      */
     public void update(float deltaTime) {
+        inputHandler.pollFrame();
+        if (isSimulationThreaded()) {
+            // Ticks run on the simulation thread
+            return;
+        }
+        int steps = timestep.advance(deltaTime);
+        for (int i = 0; i < steps; i++) {
+            tick(timestep.getStep());
+        }
+        gameState.getStore().setInterpolationAlpha(timestep.getAlpha());
+    }
+    /**
+     * Run one fixed simulation step
+     */
+    public void tick(float deltaTime) {
+        // Positions at the start of the tick, for render interpolation
+        gameState.getStore().savePrevious();
         // Handle input
         inputHandler.update(gameState, deltaTime);
         // Update game state
         gameState.update(deltaTime);
         // Check collisions
-        collisionManager.checkCollisions(gameState);
+        collisionManager.checkCollisions(gameState, deltaTime);
         // Check for portal teleportation
         portalManager.checkPortals(gameState, deltaTime);
+        // Apply spawns/despawns queued during this tick
+        gameState.applyPendingChanges();
+        if (inputLog != null) {
+            stateHash = StateHasher.roll(stateHash, gameState);
+        }
+    }
+    /**
+     * Record the input of the runs that follow to a file (a new run
+     * replaces the previous recording). Call before initialize(); the
+     * file is written by finishRecording().
+     */
+    public void recordTo(FileHandle file) {
+        this.recordFile = file;
+    }
+    /**
+     * Stop recording and write the log
+     * @return false if nothing was recorded or the file could not be written
+     */
+    public boolean finishRecording() {
+        if (recordFile == null || inputLog == null) {
+            return false;
+        }
+        InputLog log = inputLog;
+        inputLog = null;
+        inputHandler.record(null);
+        log.setFinalHash(stateHash);
+        try {
+            log.save(recordFile);
+            Gdx.app.log("GameController", "Recorded " + log.size() + " ticks to " + recordFile.path()
+                + " (hash " + Long.toHexString(stateHash) + ")");
+            return true;
+        } catch (IOException e) {
+            Gdx.app.error("GameController", "Could not write input log: " + e.getMessage());
+            return false;
+        }
+    }
+    /**
+     * Start a new game that replays a recorded log: same map, tick rate and
+     * seeds, with every tick's input read from the log.
+     * @return false if the log's map could not be loaded
+     */
+    public boolean startReplay(InputLog log) {
+        seed = log.getSeed();
+        effectSeed = log.getEffectSeed();
+        seedsFixed = true;
+        timestep.setTickRate(log.getTickRate());
+        if (!initialize(log.getMapPath())) {
+            seedsFixed = false;
+            return false;
+        }
+        inputLog = log;
+        inputHandler.replay(log);
+        return true;
+    }
+    /**
+     * Rolling hash of the state after every tick of the run being
+     * recorded or replayed (see StateHasher)
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+    /**
+     * Start running ticks on a separate simulation thread.
+     * The render thread then draws from getSnapshots() instead of the game state.
+     */
+    public void startSimulationThread() {
+        if (simulationThread == null) {
+            simulationThread = new SimulationThread(this, timestep, snapshots);
+        }
+        simulationThread.start();
+    }
+    /**
+     * Stop the simulation thread (ticks go back to update())
+     */
+    public void stopSimulationThread() {
+        if (simulationThread != null) {
+            simulationThread.stop();
+        }
+    }
+    public boolean isSimulationThreaded() {
+        return simulationThread != null && simulationThread.isRunning();
+    }
+    /**
+     * Latest render snapshot published by the simulation thread
+     */
+    public RenderSnapshot acquireSnapshot() {
+        return snapshots.acquire();
     }
     /**
      * Save the current game
      */
     public boolean saveGame() {
-        return saveLoadManager.saveGame(gameState);
+        // The simulation must not run while the state is read
+        boolean threaded = isSimulationThreaded();
+        stopSimulationThread();
+        boolean saved = saveLoadManager.saveGame(gameState);
+        if (threaded) {
+            startSimulationThread();
+        }
+        return saved;
     }
     /**
      * Load a saved game
      */
     public boolean loadGame() {
+        boolean threaded = isSimulationThreaded();
+        stopSimulationThread();
+        boolean loaded = loadSaveData();
+        if (threaded) {
+            startSimulationThread();
+        }
+        return loaded;
+    }
+    private boolean loadSaveData() {
         SaveLoadManager.SaveData saveData = saveLoadManager.loadGame();
         if (saveData != null) {
+            // A replay can't start from a save: keep what was recorded so far
+            finishRecording();
             // Load the map
             try {
                 GameMap map = mapLoader.loadMap("maps/" + saveData.currentMap + ".tmx");
                 gameState.setCurrentMap(map);
                 // Set player position
-                gameState.getPlayer().setPosition(saveData.playerX, saveData.playerY);
+                gameState.getPlayer().teleport(saveData.playerX, saveData.playerY);
+                timestep.reset();
                 Gdx.app.log("GameController", "Game loaded: " + saveData.currentMap);
                 return true;
             } catch (Exception e) {
@@ -120,24 +347,61 @@ public class GameController {
     public GameState getGameState() {
         return gameState;
     }
+    /**
+     * Use the parallel collision narrowphase; it only kicks in on ticks
+     * with at least CollisionManager.PARALLEL_MIN_DYNAMIC moving entities
+     */
+    public void setParallelCollisions(boolean parallel) {
+        collisionManager.setParallel(parallel);
+        if (parallel) {
+            Gdx.app.log("GameController", "Parallel collisions enabled (from "
+                + CollisionManager.PARALLEL_MIN_DYNAMIC + " moving entities)");
+        }
+    }
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
     /**
      * Spawn power-ups in the current map
      */
-    private void spawnPowerUps(GameState gameState) {
+    /**
+     * Check if a box overlaps any hazard of the current map
+     */
+    private static boolean overlapsHazard(GameState gameState, float x, float y, float width, float height) {
+        List<Entity> hazards = gameState.getRegistry().getHazards();
+        for (int i = 0; i < hazards.size(); i++) {
+            Rectangle bounds = hazards.get(i).getBounds();
+            if (x < bounds.x + bounds.width && x + width > bounds.x
+                    && y < bounds.y + bounds.height && y + height > bounds.y) {
+                return true;
+            }
+        }
+        return false;
+    }
+    private void spawnPowerUps(GameState gameState, Random rand) {
         try {
             // Temporarily store powerups to add after getting textures from renderer
             // For now, add a few default ones per map
-            java.util.Random rand = new java.util.Random();
             String currentMapId = gameState.getCurrentMap().getMapId();
             // Each map gets 3-5 power-ups randomly placed
             int powerUpCount = 3 + rand.nextInt(3);
+            int spawned = 0;
             for (int i = 0; i < powerUpCount; i++) {
-                float x = 100f + rand.nextFloat() * 1600f;
-                float y = 100f + rand.nextFloat() * 800f;
                 PowerUp.Type t = PowerUp.Type.values()[rand.nextInt(3)];
-                gameState.addPowerUp(new PowerUp(x, y, t, null));
+                // Redraw positions that land in a wall (the player could never reach them)
+                // or on a hazard (collecting it would hurt)
+                for (int attempt = 0; attempt < POWERUP_SPAWN_ATTEMPTS; attempt++) {
+                    float x = 100f + rand.nextFloat() * 1600f;
+                    float y = 100f + rand.nextFloat() * 800f;
+                    if (!collisionManager.wouldCollideWithMap(gameState, x, y, PowerUp.SZ, PowerUp.SZ)
+                            && !overlapsHazard(gameState, x, y, PowerUp.SZ, PowerUp.SZ)) {
+                        gameState.addPowerUp(new PowerUp(x, y, t, null));
+                        spawned++;
+                        break;
+                    }
+                }
             }
-            Gdx.app.log("GameController", "✨ Spawned " + powerUpCount + " power-ups in " + currentMapId);
+            Gdx.app.log("GameController", "✨ Spawned " + spawned + " power-ups in " + currentMapId);
         } catch (Exception e) {
             Gdx.app.error("GameController", "Error spawning power-ups: " + e.getMessage());
         }
@@ -146,6 +410,13 @@ public class GameController {
      * Clean up resources
      */
     public void dispose() {
+        stopSimulationThread();
+        finishRecording();
+        // Dispose the resident maps before the sprites they hold
+        gameState.getWorld().clear();
+        if (sprites != null) {
+            sprites.dispose();
+        }
         Gdx.app.log("GameController", "Controller disposed");
     }
 }
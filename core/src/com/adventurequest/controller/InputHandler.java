@@ -1,28 +1,47 @@
 package com.adventurequest.controller;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.adventurequest.model.EntityRegistry;
 import com.adventurequest.model.GameState;
+import com.adventurequest.model.entities.Entity;
 import com.adventurequest.model.entities.Player;
 import com.adventurequest.model.entities.Player.Direction;
+import com.adventurequest.model.interfaces.Interactable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * InputHandler - Handles player input
  *
  * Maps keyboard input to game actions
+ *
+ * Keys are sampled once per rendered frame on the render thread
+ * (pollFrame) and consumed by simulation ticks (update), which may run
+ * on the simulation thread.
+ *
+ * Each tick's input can be appended to an InputLog, or read back from
+ * one instead of the keyboard to replay a recorded run.
  */
 public class InputHandler {
+    // One-shot presses seen since the last tick (a frame may run zero or several ticks)
+    private final AtomicBoolean jumpPressed = new AtomicBoolean();
+    private final AtomicBoolean interactPressed = new AtomicBoolean();
+    // Movement key held during the last polled frame
+    private volatile Direction heldDirection = Direction.NONE;
+    // Log receiving every tick's input (null = not recording)
+    private InputLog recording;
+    // Log supplying every tick's input instead of the keys (null = live input)
+    private InputLog replay;
+    private int replayTick;
     /**
-     * Update input handling
+     * Sample this frame's keys; call once per rendered frame
      */
-    public void update(GameState gameState, float deltaTime) {
-        if (gameState == null || gameState.getPlayer() == null) {
-            return;
+    public void pollFrame() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) || Gdx.input.isKeyJustPressed(Input.Keys.J)) {
+            jumpPressed.set(true);
         }
-        Player player = gameState.getPlayer();
-        // Don't handle movement input if dialogue is active
-        if (gameState.isDialogueActive()) {
-            return;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.E) || Gdx.input.isKeyJustPressed(Input.Keys.F)) {
+            interactPressed.set(true);
         }
-        // Handle movement input
         Direction direction = Direction.NONE;
         if (Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP)) {
             direction = Direction.UP;
@@ -33,18 +52,86 @@ public class InputHandler {
         } else if (Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
             direction = Direction.RIGHT;
         }
+        heldDirection = direction;
+    }
+    /**
+     * Update input handling (one simulation tick)
+     */
+    public void update(GameState gameState, float deltaTime) {
+        int input = nextInput();
+        if (gameState == null || gameState.getPlayer() == null) {
+            return;
+        }
+        Player player = gameState.getPlayer();
+        // Don't handle movement input if dialogue is active
+        if (gameState.isDialogueActive()) {
+            return;
+        }
+        // Handle movement input
+        Direction direction = InputLog.direction(input);
         // Move the player
         if (direction != Direction.NONE) {
             player.moveInDirection(direction, deltaTime);
         }
         // Handle jump key (SPACE or J)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) || Gdx.input.isKeyJustPressed(Input.Keys.J)) {
+        if (InputLog.jump(input)) {
             player.jump();
         }
         // Handle interaction key (E or F)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.E) || Gdx.input.isKeyJustPressed(Input.Keys.F)) {
-            // Interaction will be handled by InteractionManager
+        if (InputLog.interact(input)) {
             Gdx.app.log("InputHandler", "Interaction key pressed");
+            interact(gameState, player);
+        }
+    }
+    /**
+     * Take this tick's input from the keys or the replayed log, and record it
+     */
+    private int nextInput() {
+        boolean jump = jumpPressed.getAndSet(false);
+        boolean interact = interactPressed.getAndSet(false);
+        int input = replay != null
+            ? replay.get(replayTick++)
+            : InputLog.encode(heldDirection, jump, interact);
+        if (recording != null) {
+            recording.add(input);
+        }
+        return input;
+    }
+    /**
+     * Append every following tick's input to a log (null stops recording)
+     */
+    public void record(InputLog log) {
+        this.recording = log;
+    }
+    /**
+     * Read every following tick's input from a log instead of the keys
+     * (null goes back to live input)
+     */
+    public void replay(InputLog log) {
+        this.replay = log;
+        this.replayTick = 0;
+    }
+    /**
+     * Interact with the nearest interactable in range and wake it
+     */
+    private void interact(GameState gameState, Player player) {
+        EntityRegistry registry = gameState.getRegistry();
+        List<Interactable> interactables = registry.getInteractables();
+        Entity nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < interactables.size(); i++) {
+            Interactable candidate = interactables.get(i);
+            Entity entity = (Entity) candidate;
+            if (!entity.isActive() || !candidate.canInteract()) continue;
+            float distance = player.distanceTo(entity);
+            if (distance <= candidate.getInteractionRange() && distance < nearestDistance) {
+                nearest = entity;
+                nearestDistance = distance;
+            }
+        }
+        if (nearest != null) {
+            ((Interactable) nearest).interact(player);
+            registry.wake(nearest);
         }
     }
 }
@@ -0,0 +1,191 @@
+package com.adventurequest.controller;
+import com.badlogic.gdx.files.FileHandle;
+import com.adventurequest.model.entities.Player.Direction;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+/**
+ * InputLog - The per-tick player input of one run, for deterministic replay
+ *
+ * - One input byte per tick: held direction (bits 0-2), jump (bit 3),
+ *   interact (bit 4)
+ * - Header: starting map, tick rate, the simulation and effect RNG seeds,
+ *   and the rolling state hash after the last tick
+ * - Stored run-length encoded: a held key repeats for many ticks, so a
+ *   minute of play is usually a few hundred bytes
+ *
+ * Replaying the inputs from the same map and seeds runs the exact same
+ * ticks (see ReplaySimulation).
+ */
+public class InputLog {
+    // "AQIL"
+    private static final int MAGIC = 0x4151494C;
+    private static final int VERSION = 1;
+    // Input bits
+    public static final int DIRECTION_MASK = 0x7;
+    public static final int JUMP = 1 << 3;
+    public static final int INTERACT = 1 << 4;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private final String mapPath;
+    private final int tickRate;
+    private final long seed;
+    private final long effectSeed;
+    private long finalHash;
+    private byte[] inputs = new byte[1024];
+    private int size;
+    /**
+     * @param mapPath Map the run started on
+     * @param tickRate Simulation ticks per second
+     * @param seed Seed of the simulation RNG
+     * @param effectSeed Seed of the particle effects RNG
+     */
+    public InputLog(String mapPath, int tickRate, long seed, long effectSeed) {
+        this.mapPath = mapPath;
+        this.tickRate = tickRate;
+        this.seed = seed;
+        this.effectSeed = effectSeed;
+    }
+    /**
+     * Pack one tick's input into a byte
+     */
+    public static int encode(Direction direction, boolean jump, boolean interact) {
+        int input = direction.ordinal();
+        if (jump) input |= JUMP;
+        if (interact) input |= INTERACT;
+        return input;
+    }
+    public static Direction direction(int input) {
+        int ordinal = input & DIRECTION_MASK;
+        return ordinal < DIRECTIONS.length ? DIRECTIONS[ordinal] : Direction.NONE;
+    }
+    public static boolean jump(int input) {
+        return (input & JUMP) != 0;
+    }
+    public static boolean interact(int input) {
+        return (input & INTERACT) != 0;
+    }
+    /**
+     * Append the input of the next tick
+     */
+    public void add(int input) {
+        if (size == inputs.length) {
+            inputs = Arrays.copyOf(inputs, size * 2);
+        }
+        inputs[size++] = (byte) input;
+    }
+    /**
+     * Input of a tick (no keys past the end of the log)
+     */
+    public int get(int tick) {
+        return tick < size ? inputs[tick] : Direction.NONE.ordinal();
+    }
+    public int size() {
+        return size;
+    }
+    public String getMapPath() {
+        return mapPath;
+    }
+    public int getTickRate() {
+        return tickRate;
+    }
+    public long getSeed() {
+        return seed;
+    }
+    public long getEffectSeed() {
+        return effectSeed;
+    }
+    public long getFinalHash() {
+        return finalHash;
+    }
+    public void setFinalHash(long finalHash) {
+        this.finalHash = finalHash;
+    }
+    /**
+     * Write the log to a file
+     */
+    public void save(FileHandle file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false)))) {
+            write(out);
+        }
+    }
+    /**
+     * Read a log written by save()
+     */
+    public static InputLog load(FileHandle file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.read()))) {
+            return read(in);
+        }
+    }
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(mapPath);
+        out.writeShort(tickRate);
+        out.writeLong(seed);
+        out.writeLong(effectSeed);
+        out.writeLong(finalHash);
+        out.writeInt(size);
+        // Runs of (input, length) with the length as a varint
+        int i = 0;
+        while (i < size) {
+            byte input = inputs[i];
+            int run = 1;
+            while (i + run < size && inputs[i + run] == input) {
+                run++;
+            }
+            out.writeByte(input);
+            writeVarInt(out, run);
+            i += run;
+        }
+    }
+    private static InputLog read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported input log version " + version);
+        }
+        InputLog log = new InputLog(in.readUTF(), in.readUnsignedShort(), in.readLong(), in.readLong());
+        log.finalHash = in.readLong();
+        int size = in.readInt();
+        log.inputs = new byte[Math.max(size, 1)];
+        while (log.size < size) {
+            byte input = in.readByte();
+            int run = readVarInt(in);
+            if (run <= 0 || run > size - log.size) {
+                throw new IOException("Corrupt input log at tick " + log.size);
+            }
+            Arrays.fill(log.inputs, log.size, log.size + run, input);
+            log.size += run;
+        }
+        return log;
+    }
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+    private static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt input log: varint too long");
+    }
+}
@@ -1,7 +1,7 @@
 package com.adventurequest.controller;
 import com.badlogic.gdx.Gdx;
 import com.adventurequest.model.GameState;
-import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.ResidentMap;
 import com.adventurequest.model.entities.Player;
 import com.adventurequest.model.entities.Portal;
 import com.adventurequest.model.world.GameMap;
@@ -9,14 +9,20 @@ import com.adventurequest.loader.TiledMapLoader;
 import java.util.List;
 /**
  * PortalManager - Handles portal teleportation between maps
+ *
+ * Maps still resident in the World are reused as they are (their
+ * entities kept running in the background); others are loaded.
  */
 public class PortalManager {
     private TiledMapLoader mapLoader;
     private float portalCooldown;
     private static final float PORTAL_COOLDOWN_TIME = 1.0f; // 1 second cooldown
     private com.adventurequest.view.Renderer renderer = null;
-    public PortalManager() {
-        this.mapLoader = new TiledMapLoader();
+    /**
+     * @param mapLoader Loader for target maps (shared with the GameController)
+     */
+    public PortalManager(TiledMapLoader mapLoader) {
+        this.mapLoader = mapLoader;
         this.portalCooldown = 0;
     }
     /**
@@ -38,17 +44,15 @@ public class PortalManager {
             return;
         }
         Player player = gameState.getPlayer();
-        List<Entity> entities = gameState.getEntities();
+        List<Portal> portals = gameState.getRegistry().getPortals();
         // Check each portal
-        for (Entity entity : entities) {
-            if (entity instanceof Portal && entity.isActive()) {
-                Portal portal = (Portal) entity;
-                // Check if player overlaps portal
-                if (player.overlaps(portal)) {
-                    teleportPlayer(gameState, portal);
-                    portalCooldown = PORTAL_COOLDOWN_TIME;
-                    break;
-                }
+        for (int i = 0; i < portals.size(); i++) {
+            Portal portal = portals.get(i);
+            // Check if player overlaps portal
+            if (portal.isActive() && player.overlaps(portal)) {
+                teleportPlayer(gameState, portal);
+                portalCooldown = PORTAL_COOLDOWN_TIME;
+                break;
             }
         }
     }
@@ -67,18 +71,29 @@ public class PortalManager {
                 gameState.getPlayer().getY() + gameState.getPlayer().getHeight()/2
             );
         }
-        // Load target map
         try {
-            GameMap newMap = mapLoader.loadMap("maps/" + targetMap + ".tmx");
+            GameMap newMap;
+            ResidentMap resident = gameState.getWorld().get(targetMap);
+            if (resident != null) {
+                newMap = resident.getMap();
+            } else {
+                // Map loading creates textures, so it has to run on the render thread
+                // (a map loaded after stop() gave up on it is unloaded again)
+                newMap = SimulationThread.callOnRenderThread(() -> mapLoader.loadMap("maps/" + targetMap + ".tmx"),
+                    mapLoader::unloadMap);
+            }
             if (newMap != null) {
                 // Update player position
-                gameState.getPlayer().setPosition(targetX, targetY);
-                // Switch to new map
+                gameState.getPlayer().teleport(targetX, targetY);
+                // Switch to new map (the old one stays resident)
                 gameState.setCurrentMap(newMap);
                 Gdx.app.log("PortalManager", "Successfully teleported to " + targetMap);
             } else {
                 Gdx.app.log("PortalManager", "Failed to load map: " + targetMap);
             }
+        } catch (InterruptedException e) {
+            // Simulation thread stopping: stay on the current map
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             Gdx.app.log("PortalManager", "Error loading map " + targetMap + ": " + e.getMessage());
         }
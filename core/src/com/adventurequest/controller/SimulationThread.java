@@ -0,0 +1,172 @@
+package com.adventurequest.controller;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.adventurequest.view.RenderSnapshot;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+/**
+ * SimulationThread - Runs the fixed-step simulation off the render thread
+ *
+ * - Ticks the GameController at the FixedTimestep rate on its own thread
+ * - After each batch of ticks, captures a RenderSnapshot into the write
+ *   side of a TripleBuffer and publishes it; the render thread draws the
+ *   latest one without ever waiting on the simulation
+ * - Work that needs the GL context (loading maps and textures) is handed
+ *   to the render thread with {@link #callOnRenderThread(Callable)}
+ */
+public class SimulationThread implements Runnable {
+    // Thread currently running a simulation (null when none)
+    private static volatile Thread simulationThread;
+    private final GameController controller;
+    private final FixedTimestep timestep;
+    private final TripleBuffer<RenderSnapshot> snapshots;
+    private volatile boolean running;
+    private Thread thread;
+    public SimulationThread(GameController controller, FixedTimestep timestep, TripleBuffer<RenderSnapshot> snapshots) {
+        this.controller = controller;
+        this.timestep = timestep;
+        this.snapshots = snapshots;
+    }
+    /**
+     * Start ticking (call from the render thread)
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        // First snapshot comes from the caller so there is something to draw at once
+        snapshots.getWriteBuffer().capture(controller.getGameState(), timestep.getStep(), timestep.getTicks());
+        snapshots.publish();
+        timestep.reset();
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+        Gdx.app.log("SimulationThread", "Started at " + timestep.getTickRate() + " ticks/s");
+    }
+    /**
+     * Stop ticking and wait for the current tick to finish (call from the render thread)
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        Gdx.app.log("SimulationThread", "Stopped after " + timestep.getTicks() + " ticks");
+    }
+    public boolean isRunning() {
+        return running;
+    }
+    @Override
+    public void run() {
+        simulationThread = Thread.currentThread();
+        try {
+            long last = System.nanoTime();
+            while (running) {
+                long now = System.nanoTime();
+                int steps = timestep.advance((now - last) / 1e9f);
+                last = now;
+                for (int i = 0; i < steps && running; i++) {
+                    controller.tick(timestep.getStep());
+                }
+                if (steps > 0) {
+                    snapshots.getWriteBuffer().capture(controller.getGameState(), timestep.getStep(), timestep.getTicks());
+                    snapshots.publish();
+                }
+                // Sleep until the next tick is due
+                long wait = (long) ((1f - timestep.getAlpha()) * timestep.getStep() * 1e9f);
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        } catch (Throwable t) {
+            if (running) {
+                running = false;
+                Gdx.app.error("SimulationThread", "Simulation failed: " + t.getMessage());
+                // Fail the same way a single-threaded tick would: on the render thread
+                Gdx.app.postRunnable(() -> {
+                    throw new GdxRuntimeException("Simulation thread failed", t);
+                });
+            }
+        } finally {
+            simulationThread = null;
+        }
+    }
+    /**
+     * Check if the calling thread is the simulation thread
+     */
+    public static boolean isSimulationThread() {
+        return Thread.currentThread() == simulationThread;
+    }
+    /**
+     * Run a task that needs the GL context without waiting for it: on the
+     * simulation thread it is posted to the render thread, anywhere else
+     * it runs directly.
+     */
+    public static void runOnRenderThread(Runnable task) {
+        if (isSimulationThread()) {
+            Gdx.app.postRunnable(task);
+        } else {
+            task.run();
+        }
+    }
+    /**
+     * Run a task that needs the GL context. On the simulation thread it is
+     * posted to the render thread and waited for; anywhere else it runs directly.
+     */
+    public static <T> T callOnRenderThread(Callable<T> task) throws Exception {
+        return callOnRenderThread(task, null);
+    }
+    /**
+     * Same as {@link #callOnRenderThread(Callable)}, for tasks whose result
+     * holds resources. If the simulation thread is interrupted while waiting
+     * (stop()), the task is cancelled; if it had already run, its result is
+     * handed to discard on the render thread instead of being leaked.
+     * @param discard Frees a result nobody will receive, or null
+     */
+    public static <T> T callOnRenderThread(Callable<T> task, Consumer<T> discard) throws Exception {
+        if (!isSimulationThread()) {
+            return task.call();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Gdx.app.postRunnable(() -> {
+            if (result.isCancelled()) {
+                return;
+            }
+            try {
+                T value = task.call();
+                if (!result.complete(value) && discard != null && value != null) {
+                    // Cancelled while the task ran
+                    discard.accept(value);
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new GdxRuntimeException(cause);
+        } catch (InterruptedException e) {
+            if (!result.cancel(false) && discard != null && !result.isCompletedExceptionally()) {
+                // Completed just as the wait was interrupted
+                T value = result.getNow(null);
+                if (value != null) {
+                    Gdx.app.postRunnable(() -> discard.accept(value));
+                }
+            }
+            throw e;
+        }
+    }
+}
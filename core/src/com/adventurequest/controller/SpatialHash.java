@@ -0,0 +1,288 @@
+package com.adventurequest.controller;
+import com.badlogic.gdx.math.Rectangle;
+import java.util.Arrays;
+/**
+ * SpatialHash - Uniform grid broadphase keyed on map tile cells
+ *
+ * Each entity slot is bucketed into every cell its bounds cover.
+ * Only slots sharing at least one cell are returned as candidates,
+ * so the narrowphase never sees pairs that are far apart.
+ *
+ * Slots are re-bucketed only when their cell range changes, so
+ * entities that don't move cost nothing to keep up to date.
+ *
+ * Buckets can also be walked directly (one per cell) so the cells can be
+ * split across threads; the read accessors are safe to call concurrently
+ * as long as nothing updates the hash at the same time.
+ */
+public class SpatialHash {
+    private static final int EMPTY = -1;
+    private float cellWidth;
+    private float cellHeight;
+    // Open addressing table: cell key -> bucket id
+    private long[] cellKeys;
+    private int[] cellBuckets;
+    private int cellCount;
+    // Bucket contents (slot ids)
+    private int[][] buckets;
+    private int[] bucketSizes;
+    private int[] bucketCellX;
+    private int[] bucketCellY;
+    private int bucketCount;
+    // Cached cell range per slot
+    private int[] slotMinX;
+    private int[] slotMinY;
+    private int[] slotMaxX;
+    private int[] slotMaxY;
+    private boolean[] slotPresent;
+    // Candidate gathering
+    private int[] marks;
+    private int stamp;
+    private int[] candidates;
+    /**
+     * Constructor
+     * @param cellWidth Cell width in pixels (usually the map tile width)
+     * @param cellHeight Cell height in pixels (usually the map tile height)
+     */
+    public SpatialHash(float cellWidth, float cellHeight) {
+        this.cellKeys = new long[64];
+        this.cellBuckets = new int[64];
+        this.buckets = new int[32][];
+        this.bucketSizes = new int[32];
+        this.bucketCellX = new int[32];
+        this.bucketCellY = new int[32];
+        this.slotMinX = new int[16];
+        this.slotMinY = new int[16];
+        this.slotMaxX = new int[16];
+        this.slotMaxY = new int[16];
+        this.slotPresent = new boolean[16];
+        this.marks = new int[16];
+        this.candidates = new int[16];
+        reset(cellWidth, cellHeight);
+    }
+    /**
+     * Drop every slot and change the cell size
+     */
+    public void reset(float cellWidth, float cellHeight) {
+        this.cellWidth = cellWidth > 0 ? cellWidth : 32f;
+        this.cellHeight = cellHeight > 0 ? cellHeight : 32f;
+        Arrays.fill(cellBuckets, EMPTY);
+        cellCount = 0;
+        bucketCount = 0;
+        Arrays.fill(slotPresent, false);
+    }
+    /**
+     * Insert or move a slot
+     * @return true if the slot's cell range changed
+     */
+    public boolean update(int slot, Rectangle bounds) {
+        return update(slot, bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+    /**
+     * Insert or move a slot given its box
+     * @return true if the slot's cell range changed
+     */
+    public boolean update(int slot, float x, float y, float width, float height) {
+        ensureSlot(slot);
+        int minX = (int) Math.floor(x / cellWidth);
+        int minY = (int) Math.floor(y / cellHeight);
+        int maxX = (int) Math.floor((x + width) / cellWidth);
+        int maxY = (int) Math.floor((y + height) / cellHeight);
+        if (slotPresent[slot] && slotMinX[slot] == minX && slotMinY[slot] == minY
+                && slotMaxX[slot] == maxX && slotMaxY[slot] == maxY) {
+            return false;
+        }
+        remove(slot);
+        slotMinX[slot] = minX;
+        slotMinY[slot] = minY;
+        slotMaxX[slot] = maxX;
+        slotMaxY[slot] = maxY;
+        slotPresent[slot] = true;
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                addToBucket(bucketFor(cx, cy, true), slot);
+            }
+        }
+        return true;
+    }
+    /**
+     * Remove a slot from every cell it occupies
+     */
+    public void remove(int slot) {
+        if (slot >= slotPresent.length || !slotPresent[slot]) {
+            return;
+        }
+        for (int cy = slotMinY[slot]; cy <= slotMaxY[slot]; cy++) {
+            for (int cx = slotMinX[slot]; cx <= slotMaxX[slot]; cx++) {
+                int bucket = bucketFor(cx, cy, false);
+                if (bucket != EMPTY) {
+                    removeFromBucket(bucket, slot);
+                }
+            }
+        }
+        slotPresent[slot] = false;
+    }
+    /**
+     * Collect every slot greater than {@code after} that shares a cell with {@code slot}.
+     * Results are sorted ascending and read back through {@link #getCandidates()}.
+     * @return number of candidates
+     */
+    public int gatherCandidates(int slot, int after) {
+        if (slot >= slotPresent.length || !slotPresent[slot]) {
+            return 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+        int count = 0;
+        for (int cy = slotMinY[slot]; cy <= slotMaxY[slot]; cy++) {
+            for (int cx = slotMinX[slot]; cx <= slotMaxX[slot]; cx++) {
+                int bucket = bucketFor(cx, cy, false);
+                if (bucket == EMPTY) continue;
+                int[] items = buckets[bucket];
+                int size = bucketSizes[bucket];
+                for (int k = 0; k < size; k++) {
+                    int other = items[k];
+                    if (other <= after || marks[other] == stamp) continue;
+                    marks[other] = stamp;
+                    if (count == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, count * 2);
+                    }
+                    candidates[count++] = other;
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+        return count;
+    }
+    /**
+     * Candidate buffer filled by the last {@link #gatherCandidates(int, int)} call
+     */
+    public int[] getCandidates() {
+        return candidates;
+    }
+    // Direct bucket access (one bucket per occupied cell; buckets may be empty)
+    public int getBucketCount() {
+        return bucketCount;
+    }
+    public int[] getBucketItems(int bucket) {
+        return buckets[bucket];
+    }
+    public int getBucketSize(int bucket) {
+        return bucketSizes[bucket];
+    }
+    public int getBucketCellX(int bucket) {
+        return bucketCellX[bucket];
+    }
+    public int getBucketCellY(int bucket) {
+        return bucketCellY[bucket];
+    }
+    /**
+     * Check if a bucket's cell owns a pair of slots (the lowest cell both cover).
+     * Lets a cell-by-cell walk report each pair exactly once.
+     */
+    public boolean ownsPair(int bucket, int slotA, int slotB) {
+        return bucketCellX[bucket] == Math.max(slotMinX[slotA], slotMinX[slotB])
+            && bucketCellY[bucket] == Math.max(slotMinY[slotA], slotMinY[slotB]);
+    }
+    public float getCellWidth() {
+        return cellWidth;
+    }
+    public float getCellHeight() {
+        return cellHeight;
+    }
+    private void ensureSlot(int slot) {
+        if (slot < slotPresent.length) {
+            return;
+        }
+        int size = Math.max(slot + 1, slotPresent.length * 2);
+        slotMinX = Arrays.copyOf(slotMinX, size);
+        slotMinY = Arrays.copyOf(slotMinY, size);
+        slotMaxX = Arrays.copyOf(slotMaxX, size);
+        slotMaxY = Arrays.copyOf(slotMaxY, size);
+        slotPresent = Arrays.copyOf(slotPresent, size);
+        marks = Arrays.copyOf(marks, size);
+    }
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    /**
+     * Find the bucket for a cell, optionally creating it
+     */
+    private int bucketFor(int cx, int cy, boolean create) {
+        long key = cellKey(cx, cy);
+        int mask = cellKeys.length - 1;
+        int i = hash(key) & mask;
+        while (cellBuckets[i] != EMPTY) {
+            if (cellKeys[i] == key) {
+                return cellBuckets[i];
+            }
+            i = (i + 1) & mask;
+        }
+        if (!create) {
+            return EMPTY;
+        }
+        if ((cellCount + 1) * 2 > cellKeys.length) {
+            growTable();
+            return bucketFor(cx, cy, true);
+        }
+        if (bucketCount == buckets.length) {
+            buckets = Arrays.copyOf(buckets, bucketCount * 2);
+            bucketSizes = Arrays.copyOf(bucketSizes, bucketCount * 2);
+            bucketCellX = Arrays.copyOf(bucketCellX, bucketCount * 2);
+            bucketCellY = Arrays.copyOf(bucketCellY, bucketCount * 2);
+        }
+        int bucket = bucketCount++;
+        if (buckets[bucket] == null) {
+            buckets[bucket] = new int[4];
+        }
+        bucketSizes[bucket] = 0;
+        bucketCellX[bucket] = cx;
+        bucketCellY[bucket] = cy;
+        cellKeys[i] = key;
+        cellBuckets[i] = bucket;
+        cellCount++;
+        return bucket;
+    }
+    private void growTable() {
+        long[] oldKeys = cellKeys;
+        int[] oldBuckets = cellBuckets;
+        cellKeys = new long[oldKeys.length * 2];
+        cellBuckets = new int[oldKeys.length * 2];
+        Arrays.fill(cellBuckets, EMPTY);
+        int mask = cellKeys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldBuckets[j] == EMPTY) continue;
+            int i = hash(oldKeys[j]) & mask;
+            while (cellBuckets[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            cellKeys[i] = oldKeys[j];
+            cellBuckets[i] = oldBuckets[j];
+        }
+    }
+    private void addToBucket(int bucket, int slot) {
+        int size = bucketSizes[bucket];
+        if (size == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], size * 2);
+        }
+        buckets[bucket][size] = slot;
+        bucketSizes[bucket] = size + 1;
+    }
+    private void removeFromBucket(int bucket, int slot) {
+        int[] items = buckets[bucket];
+        int size = bucketSizes[bucket];
+        for (int k = 0; k < size; k++) {
+            if (items[k] == slot) {
+                items[k] = items[size - 1];
+                bucketSizes[bucket] = size - 1;
+                return;
+            }
+        }
+    }
+}
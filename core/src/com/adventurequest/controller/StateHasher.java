@@ -0,0 +1,71 @@
+package com.adventurequest.controller;
+import com.adventurequest.model.GameState;
+import com.adventurequest.model.entities.EntityStore;
+import com.adventurequest.model.entities.Player;
+import com.adventurequest.model.entities.PowerUp;
+import java.util.List;
+/**
+ * StateHasher - 64-bit fingerprint of the simulation state
+ *
+ * - Covers every store slot (position, active flag), the player
+ *   (health, direction, jump state), power-ups and the current map
+ * - roll() chains one tick's hash into the previous one, so two runs
+ *   with the same rolling hash went through the same states on every tick
+ *
+ * Floats are hashed by their bits: a replay has to match exactly, not
+ * approximately.
+ */
+public final class StateHasher {
+    // Rolling hash before the first tick
+    public static final long INITIAL = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private StateHasher() {
+    }
+    /**
+     * Chain the state at the end of a tick into a rolling hash
+     */
+    public static long roll(long previous, GameState gameState) {
+        long h = hash(gameState);
+        return mix(mix(previous, (int) h), (int) (h >>> 32));
+    }
+    /**
+     * Hash the current state
+     */
+    public static long hash(GameState gameState) {
+        long h = INITIAL;
+        if (gameState.getCurrentMap() != null) {
+            h = mix(h, gameState.getCurrentMap().getMapId().hashCode());
+        }
+        EntityStore store = gameState.getStore();
+        h = mix(h, store.size());
+        for (int i = 0; i < store.size(); i++) {
+            h = mix(h, Float.floatToIntBits(store.getX(i)));
+            h = mix(h, Float.floatToIntBits(store.getY(i)));
+            h = mix(h, store.isActive(i) ? 1 : 0);
+        }
+        Player player = gameState.getPlayer();
+        if (player != null) {
+            h = mix(h, Float.floatToIntBits(player.getHealth()));
+            h = mix(h, player.getCurrentDirection().ordinal());
+            h = mix(h, player.getJumpState().ordinal());
+        }
+        List<PowerUp> powerUps = gameState.getPowerUps();
+        for (int i = 0; i < powerUps.size(); i++) {
+            PowerUp powerUp = powerUps.get(i);
+            h = mix(h, Float.floatToIntBits(powerUp.getX()));
+            h = mix(h, Float.floatToIntBits(powerUp.getY()));
+            h = mix(h, powerUp.isCollected() ? 1 : 0);
+        }
+        return h;
+    }
+    /**
+     * FNV-1a step over the 4 bytes of a value
+     */
+    private static long mix(long h, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            h ^= (value >>> shift) & 0xFF;
+            h *= PRIME;
+        }
+        return h;
+    }
+}
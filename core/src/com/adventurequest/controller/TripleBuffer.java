@@ -0,0 +1,58 @@
+package com.adventurequest.controller;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+/**
+ * TripleBuffer - Lock-free hand-off of the latest value from one producer thread to one consumer thread
+ *
+ * Three buffers rotate between roles:
+ * - write: owned by the producer, filled in place
+ * - read: owned by the consumer, read in place
+ * - middle: the last published buffer, waiting to be picked up
+ *
+ * publish() swaps write and middle, acquire() swaps middle and read, each
+ * with a single atomic exchange. Neither side ever blocks or waits, and
+ * the consumer always sees a complete buffer. If the producer publishes
+ * several times before the consumer looks, only the newest survives.
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    // Set on the middle index when it holds a buffer the consumer hasn't taken yet
+    private static final int FRESH = 4;
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(2);
+    private int writeIndex = 0;
+    private int readIndex = 1;
+    public TripleBuffer(Supplier<T> factory) {
+        this.buffers = new Object[] { factory.get(), factory.get(), factory.get() };
+    }
+    /**
+     * Buffer the producer fills next (producer thread only)
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+    /**
+     * Make the write buffer the latest value (producer thread only)
+     */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+    /**
+     * Latest published buffer (consumer thread only).
+     * Returns the same buffer again if nothing new was published.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) buffers[readIndex];
+    }
+    /**
+     * Check if a buffer was published since the last acquire
+     */
+    public boolean hasFresh() {
+        return (middle.get() & FRESH) != 0;
+    }
+}
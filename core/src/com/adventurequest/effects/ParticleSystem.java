@@ -7,19 +7,28 @@ import com.badlogic.gdx.math.Vector2;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 public class ParticleSystem {
     List<Particle> p;
     List<DamageNumber> dn;
     ShapeRenderer sr;
+    // Seedable so a replayed run gets the same effects
+    private final Random random = new Random();
     public ParticleSystem() {
         this.p = new ArrayList<>();
         this.dn = new ArrayList<>();
         this.sr = new ShapeRenderer();
     }
+    /**
+     * Restart the particle random sequence
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
     public void createDamageEffect(float x, float y) {
         for (int i = 0; i < 8; i++) {
-            float a = (float) Math.random() * 360f;
-            float s = 200f + (float) Math.random() * 200f;
+            float a = random.nextFloat() * 360f;
+            float s = 200f + random.nextFloat() * 200f;
             Vector2 v = new Vector2(
                 (float) Math.cos(Math.toRadians(a)) * s,
                 (float) Math.sin(Math.toRadians(a)) * s
@@ -35,8 +44,8 @@ public class ParticleSystem {
     }
     public void createHealEffect(float x, float y) {
         for (int i = 0; i < 12; i++) {
-            float a = (float) Math.random() * 360f;
-            float s = 150f + (float) Math.random() * 150f;
+            float a = random.nextFloat() * 360f;
+            float s = 150f + random.nextFloat() * 150f;
             Vector2 v = new Vector2(
                 (float) Math.cos(Math.toRadians(a)) * s,
                 (float) Math.sin(Math.toRadians(a)) * s
@@ -52,8 +61,8 @@ public class ParticleSystem {
     }
     public void createPortalEffect(float x, float y) {
         for (int i = 0; i < 15; i++) {
-            float a = (float) Math.random() * 360f;
-            float s = 100f + (float) Math.random() * 200f;
+            float a = random.nextFloat() * 360f;
+            float s = 100f + random.nextFloat() * 200f;
             Vector2 v = new Vector2(
                 (float) Math.cos(Math.toRadians(a)) * s,
                 (float) Math.sin(Math.toRadians(a)) * s
@@ -64,8 +73,8 @@ public class ParticleSystem {
     }
     public void createCritEffect(float x, float y) {
         for (int i = 0; i < 10; i++) {
-            float a = (float) Math.random() * 360f;
-            float s = 250f + (float) Math.random() * 150f;
+            float a = random.nextFloat() * 360f;
+            float s = 250f + random.nextFloat() * 150f;
             Vector2 v = new Vector2(
                 (float) Math.cos(Math.toRadians(a)) * s,
                 (float) Math.sin(Math.toRadians(a)) * s
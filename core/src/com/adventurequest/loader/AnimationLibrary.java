@@ -0,0 +1,282 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.adventurequest.model.animation.AnimationClip;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * AnimationLibrary - Defines every animation clip once and loads its frames on demand
+ *
+ * - Sprite clips: frames are sprite images (atlas regions, or textures
+ *   from the TextureCache), e.g. the player's poses
+ * - Sequence clips: frames are a folder of PNGs (the necromancer sets),
+ *   decoded on the PixmapDecodePool and scaled down to FRAME_SIZE
+ * - acquire()/release() count the entities holding a clip
+ * - update() runs once per frame on the render thread: it loads clips
+ *   that were shown while unloaded and evicts clips nobody has held for
+ *   EVICT_DELAY_NANOS (long enough for the last snapshot drawing them
+ *   to be replaced)
+ *
+ * Defining a clip costs nothing; memory follows the clips on screen.
+ */
+public class AnimationLibrary {
+    // Largest width or height a sequence frame is kept at (necromancer frames are 900x900)
+    public static final int FRAME_SIZE = 128;
+    public static final float SEQUENCE_FRAME_DURATION = 1f / 20f;
+    // Folder holding the Necromancer_of_the_Shadow_N sets
+    public static final String NECROMANCER_DIR = "necromancer";
+    private static final long EVICT_DELAY_NANOS = 1_000_000_000L;
+    // Sequences that play once and hold their last frame
+    private static final List<String> ONE_SHOT = Arrays.asList("dying", "jump_start", "hurt");
+    private static class Entry {
+        final AnimationClip clip;
+        // Sprite names of a sprite clip, or null
+        final String[] spriteNames;
+        // Frame folder of a sequence clip, or null
+        final String directory;
+        int refs;
+        long unusedSince;
+        // Sequence being decoded, and the textures of a loaded sequence
+        SequenceLoad load;
+        Texture[] textures;
+        // Nothing to load (folder empty or unreadable); not retried
+        boolean failed;
+        Entry(AnimationClip clip, String[] spriteNames, String directory) {
+            this.clip = clip;
+            this.spriteNames = spriteNames;
+            this.directory = directory;
+        }
+    }
+    private static class SequenceLoad {
+        final Texture[] textures;
+        int remaining;
+        boolean cancelled;
+        SequenceLoad(int frameCount) {
+            this.textures = new Texture[frameCount];
+            this.remaining = frameCount;
+        }
+    }
+    private final SpriteLoader sprites;
+    private final PixmapDecodePool decodePool;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<AnimationClip, Entry> byClip = new IdentityHashMap<>();
+    /**
+     * @param sprites Resolves the frames of sprite clips
+     * @param decodePool Decodes the frames of sequence clips
+     */
+    AnimationLibrary(SpriteLoader sprites, PixmapDecodePool decodePool) {
+        this.sprites = sprites;
+        this.decodePool = decodePool;
+    }
+    /**
+     * Define a clip whose frames are sprite images
+     * @param spriteNames Sprite names (file names under sprites/ without extension)
+     */
+    public void defineSprites(String id, float frameDuration, boolean looping, String... spriteNames) {
+        define(new Entry(new AnimationClip(id, frameDuration, looping), spriteNames, null));
+    }
+    /**
+     * Define a clip whose frames are the PNGs of a folder, in file name order
+     * @param directory Folder relative to the assets folder
+     */
+    public void defineSequence(String id, String directory, float frameDuration, boolean looping) {
+        define(new Entry(new AnimationClip(id, frameDuration, looping), null, directory));
+    }
+    private void define(Entry entry) {
+        Entry previous = entries.put(entry.clip.getId(), entry);
+        if (previous != null) {
+            unload(previous);
+            byClip.remove(previous.clip);
+        }
+        byClip.put(entry.clip, entry);
+    }
+    /**
+     * Define a sequence clip for every animation of the necromancer sets:
+     * necromancer/Necromancer_of_the_Shadow_2/PNG/PNG Sequences/Idle Blinking
+     * becomes "necromancer_2/idle_blinking". Only folders are listed here.
+     */
+    public void defineNecromancerSets() {
+        FileHandle root = Gdx.files.internal(NECROMANCER_DIR);
+        if (!root.isDirectory()) {
+            return;
+        }
+        int count = 0;
+        for (FileHandle set : root.list()) {
+            FileHandle sequences = set.child("PNG").child("PNG Sequences");
+            if (set.name().startsWith("__") || !sequences.isDirectory()) {
+                continue;
+            }
+            String setId = "necromancer_" + set.name().substring(set.name().lastIndexOf('_') + 1);
+            for (FileHandle sequence : sequences.list()) {
+                if (!sequence.isDirectory()) {
+                    continue;
+                }
+                String name = sequence.name().toLowerCase().replace(' ', '_');
+                defineSequence(setId + "/" + name, sequence.path(), SEQUENCE_FRAME_DURATION, !ONE_SHOT.contains(name));
+                count++;
+            }
+        }
+        Gdx.app.log("AnimationLibrary", "Defined " + count + " necromancer clips");
+    }
+    /**
+     * Hold a clip (its frames load the first time it is shown)
+     * @return the shared clip, or null if no clip has this id
+     */
+    public AnimationClip acquire(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            Gdx.app.log("AnimationLibrary", "No animation clip " + id);
+            return null;
+        }
+        entry.refs++;
+        return entry.clip;
+    }
+    /**
+     * Let go of a clip from acquire() (ignored for null)
+     */
+    public void release(AnimationClip clip) {
+        Entry entry = clip != null ? byClip.get(clip) : null;
+        if (entry == null || entry.refs == 0) {
+            return;
+        }
+        if (--entry.refs == 0) {
+            entry.unusedSince = System.nanoTime();
+        }
+    }
+    /**
+     * Load requested clips and evict unused ones (render thread, once per frame)
+     */
+    public void update() {
+        long now = System.nanoTime();
+        for (Entry entry : entries.values()) {
+            boolean resident = entry.clip.isLoaded() || entry.load != null;
+            if (entry.refs > 0) {
+                if (!resident && !entry.failed && entry.clip.isLoadRequested()) {
+                    load(entry);
+                }
+            } else if (resident && now - entry.unusedSince >= EVICT_DELAY_NANOS) {
+                unload(entry);
+            }
+        }
+    }
+    private void load(Entry entry) {
+        if (entry.spriteNames != null) {
+            TextureRegion[] frames = new TextureRegion[entry.spriteNames.length];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = sprites.acquire(entry.spriteNames[i]);
+            }
+            entry.clip.setFrames(frames);
+            return;
+        }
+        FileHandle[] files = Gdx.files.internal(entry.directory).list(".png");
+        if (files.length == 0) {
+            Gdx.app.log("AnimationLibrary", "No frames in " + entry.directory);
+            entry.failed = true;
+            return;
+        }
+        Arrays.sort(files, Comparator.comparing(FileHandle::name));
+        SequenceLoad load = new SequenceLoad(files.length);
+        entry.load = load;
+        for (int i = 0; i < files.length; i++) {
+            int index = i;
+            decodePool.submit(files[i], FRAME_SIZE, (file, texture) -> frameLoaded(entry, load, index, texture));
+        }
+    }
+    /**
+     * Decode pool callback: keep a frame, publish the clip once all frames are in
+     */
+    private void frameLoaded(Entry entry, SequenceLoad load, int index, Texture texture) {
+        if (load.cancelled) {
+            if (texture != null) {
+                texture.dispose();
+            }
+            return;
+        }
+        load.textures[index] = texture;
+        if (--load.remaining > 0) {
+            return;
+        }
+        entry.load = null;
+        List<TextureRegion> frames = new ArrayList<>(load.textures.length);
+        for (Texture frame : load.textures) {
+            if (frame != null) {
+                frames.add(new TextureRegion(frame));
+            }
+        }
+        if (frames.isEmpty()) {
+            entry.failed = true;
+            return;
+        }
+        entry.textures = load.textures;
+        entry.clip.setFrames(frames.toArray(new TextureRegion[0]));
+        Gdx.app.log("AnimationLibrary", "Loaded clip " + entry.clip.getId() + ": " + frames.size() + " frames");
+    }
+    /**
+     * Drop a clip's frames (and cancel its load if still decoding)
+     */
+    private void unload(Entry entry) {
+        if (entry.load != null) {
+            entry.load.cancelled = true;
+            disposeAll(entry.load.textures);
+            entry.load = null;
+        }
+        TextureRegion[] frames = entry.clip.getFrames();
+        if (entry.spriteNames != null && frames != null) {
+            for (TextureRegion frame : frames) {
+                sprites.release(frame);
+            }
+        }
+        if (entry.textures != null) {
+            disposeAll(entry.textures);
+            entry.textures = null;
+        }
+        entry.clip.setFrames(null);
+    }
+    private static void disposeAll(Texture[] textures) {
+        for (Texture texture : textures) {
+            if (texture != null) {
+                texture.dispose();
+            }
+        }
+    }
+    /**
+     * Number of clips with their frames in memory
+     */
+    public int getLoadedCount() {
+        int count = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.clip.isLoaded()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    /**
+     * Number of defined clips
+     */
+    public int size() {
+        return entries.size();
+    }
+    /**
+     * Number of entities holding a clip (0 if unknown)
+     */
+    public int getRefCount(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.refs : 0;
+    }
+    /**
+     * Unload every clip
+     */
+    public void dispose() {
+        for (Entry entry : entries.values()) {
+            unload(entry);
+        }
+    }
+}
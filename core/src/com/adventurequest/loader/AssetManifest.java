@@ -0,0 +1,95 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+/**
+ * AssetManifest - Everything the game loads before the menu shows
+ *
+ * - Menu backgrounds, sound effects, power-up textures
+ * - Sprite atlases (see SpriteAtlas)
+ * - Every map with its tilesets, so starting a game or taking a portal
+ *   doesn't parse a .tmx and upload its tilesets in the middle of a frame
+ *
+ * queue() only registers the assets with the AssetManager; the
+ * LoadingScreen then loads them a little each frame. Files that don't
+ * exist are left out and files that fail to load are logged and
+ * skipped: the game already runs without any of them.
+ */
+public final class AssetManifest {
+    public static final String[] BACKGROUNDS = {
+        "bg/0.jpg", "bg/1.jpg", "bg/2.jpg", "bg/3.jpg", "bg/4.jpg"
+    };
+    public static final String DAMAGE_SOUND = "sounds/damage.wav";
+    public static final String HEAL_SOUND = "sounds/heal.wav";
+    public static final String POWERUP_HEALTH = "sprites/powerup_health.png";
+    public static final String POWERUP_DAMAGE = "sprites/powerup_damage.png";
+    public static final String POWERUP_SHIELD = "sprites/powerup_shield.png";
+    public static final String[] MAPS = {
+        "maps/battle_arena.tmx",
+        "maps/seaport_mega.tmx",
+        "maps/training_grounds.tmx",
+        "maps/dark_crypt.tmx",
+        "maps/treasure_vault.tmx"
+    };
+    private AssetManifest() {
+    }
+    /**
+     * Register every asset of the manifest with an AssetManager
+     */
+    public static void queue(AssetManager assets) {
+        assets.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+        assets.setErrorListener((asset, error) ->
+            Gdx.app.error("AssetManifest", "Could not load " + asset.fileName + ": " + error.getMessage()));
+        TextureLoader.TextureParameter backgroundParams = new TextureLoader.TextureParameter();
+        backgroundParams.minFilter = Texture.TextureFilter.Linear;
+        backgroundParams.magFilter = Texture.TextureFilter.Linear;
+        for (String path : BACKGROUNDS) {
+            queue(assets, path, Texture.class, backgroundParams);
+        }
+        queue(assets, DAMAGE_SOUND, Sound.class, null);
+        queue(assets, HEAL_SOUND, Sound.class, null);
+        queue(assets, POWERUP_HEALTH, Texture.class, null);
+        queue(assets, POWERUP_DAMAGE, Texture.class, null);
+        queue(assets, POWERUP_SHIELD, Texture.class, null);
+        for (String path : SpriteAtlas.DEFAULT_ATLASES) {
+            queue(assets, path, TextureAtlas.class, null);
+        }
+        for (String path : MAPS) {
+            queue(assets, path, TiledMap.class, null);
+        }
+    }
+    private static <T> void queue(AssetManager assets, String path, Class<T> type,
+                                  AssetLoaderParameters<T> params) {
+        if (!Gdx.files.internal(path).exists()) {
+            Gdx.app.log("AssetManifest", "Skipping missing asset: " + path);
+            return;
+        }
+        assets.load(path, type, params);
+    }
+    /**
+     * A loaded asset, or null if it was missing or failed to load
+     */
+    public static <T> T get(AssetManager assets, String path, Class<T> type) {
+        if (assets == null || !assets.isLoaded(path, type)) {
+            return null;
+        }
+        return assets.get(path, type);
+    }
+    /**
+     * The menu backgrounds (null entries for missing ones)
+     */
+    public static Texture[] getBackgrounds(AssetManager assets) {
+        Texture[] backgrounds = new Texture[BACKGROUNDS.length];
+        for (int i = 0; i < BACKGROUNDS.length; i++) {
+            backgrounds[i] = get(assets, BACKGROUNDS[i], Texture.class);
+        }
+        return backgrounds;
+    }
+}
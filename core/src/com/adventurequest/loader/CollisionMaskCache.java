@@ -0,0 +1,73 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.adventurequest.model.entities.PixelMask;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * CollisionMaskCache - Builds pixel collision masks from sprite alpha
+ *
+ * Each obstacle type is read once per size at load time and the mask is
+ * shared by every obstacle using it. Pixels with alpha at or above
+ * ALPHA_THRESHOLD are solid. A sprite that can't be read gets no mask,
+ * which makes the obstacle collide as a plain rectangle.
+ */
+public class CollisionMaskCache {
+    private static final int ALPHA_THRESHOLD = 128;
+    private final Map<String, PixelMask> masks = new HashMap<>();
+    /**
+     * Get (or build) the mask for a sprite stretched to the given size
+     * @param spriteName Sprite name under sprites/ (the obstacle type)
+     * @return mask, or null to collide as a rectangle
+     */
+    public PixelMask get(String spriteName, float width, float height) {
+        int w = Math.max(1, (int) Math.ceil(width));
+        int h = Math.max(1, (int) Math.ceil(height));
+        String key = spriteName + "@" + w + "x" + h;
+        if (masks.containsKey(key)) {
+            return masks.get(key);
+        }
+        PixelMask mask = build("sprites/" + spriteName + ".png", w, h);
+        masks.put(key, mask);
+        return mask;
+    }
+    /**
+     * Sample the sprite's alpha channel at the entity's size
+     */
+    private PixelMask build(String path, int w, int h) {
+        Pixmap pixmap = null;
+        try {
+            pixmap = new Pixmap(Gdx.files.internal(path));
+            int pw = pixmap.getWidth();
+            int ph = pixmap.getHeight();
+            if (pw <= 0 || ph <= 0) {
+                return null;
+            }
+            PixelMask mask = new PixelMask(w, h);
+            int solid = 0;
+            for (int y = 0; y < h; y++) {
+                // Pixmap rows run top-down, mask rows bottom-up
+                int py = (h - 1 - y) * ph / h;
+                for (int x = 0; x < w; x++) {
+                    int px = x * pw / w;
+                    if ((pixmap.getPixel(px, py) & 0xff) >= ALPHA_THRESHOLD) {
+                        mask.set(x, y);
+                        solid++;
+                    }
+                }
+            }
+            Gdx.app.log("CollisionMaskCache", "Built mask for " + path + " (" + w + "x" + h + ", " + solid + " solid px)");
+            return mask;
+        } catch (Exception e) {
+            Gdx.app.log("CollisionMaskCache", "Could not build mask for " + path + ": " + e.getMessage());
+            return null;
+        } finally {
+            if (pixmap != null) {
+                pixmap.dispose();
+            }
+        }
+    }
+    public int size() {
+        return masks.size();
+    }
+}
@@ -9,6 +9,7 @@ import com.adventurequest.model.entities.Obstacle;
 import com.adventurequest.model.entities.Player;
 import com.adventurequest.model.entities.Portal;
 import com.adventurequest.model.entities.Chest;
+import com.adventurequest.model.entities.CollisionCategory;
 /**
  * EntityFactory - Creates entities from Tiled map objects
  *
@@ -19,6 +20,12 @@ import com.adventurequest.model.entities.Chest;
  */
 public class EntityFactory {
     private int entityIdCounter = 0;
+    private final CollisionMaskCache maskCache = new CollisionMaskCache();
+    // Loads entity textures (null = no graphics, e.g. headless runs)
+    private final SpriteLoader sprites;
+    public EntityFactory(SpriteLoader sprites) {
+        this.sprites = sprites;
+    }
     /**
      * Create an entity from a Tiled MapObject
      * @param object The MapObject from Tiled
@@ -42,23 +49,59 @@ public class EntityFactory {
         float width = rect.width;
         float height = rect.height;
         // Create entity based on type
+        Entity entity;
         switch (type.toUpperCase()) {
             case "NPC":
-                return createNPC(object, x, y);
+                entity = createNPC(object, x, y);
+                break;
             case "OBSTACLE":
-                return createObstacle(object, x, y, width, height);
+                entity = createObstacle(object, x, y, width, height);
+                break;
             case "PORTAL":
-                return createPortal(object, x, y, width, height);
+                entity = createPortal(object, x, y, width, height);
+                break;
             case "CHEST":
-                return createChest(object, x, y);
+                entity = createChest(object, x, y);
+                break;
             case "PLAYER":
-                return createPlayer(object, x, y);
+                entity = createPlayer(object, x, y);
+                break;
             case "SPIKE":
-                return createSpike(object, x, y, width, height);
+                entity = createSpike(object, x, y, width, height);
+                break;
             default:
                 Gdx.app.log("EntityFactory", "Unknown entity type: " + type);
                 return null;
         }
+        applyCollisionFilter(entity);
+        if (sprites != null) {
+            sprites.apply(entity);
+        }
+        return entity;
+    }
+    /**
+     * Fill in the collision category and mask of an entity.
+     * Done once at creation so the collision pass never inspects types or strings.
+     */
+    public static void applyCollisionFilter(Entity entity) {
+        int movers = CollisionCategory.PLAYER | CollisionCategory.NPC;
+        if (entity instanceof Player) {
+            entity.setCollisionFilter(CollisionCategory.PLAYER,
+                CollisionCategory.NPC | CollisionCategory.OBSTACLE | CollisionCategory.HEAL | CollisionCategory.HAZARD);
+        } else if (entity instanceof NPC) {
+            entity.setCollisionFilter(CollisionCategory.NPC, movers);
+        } else if (entity instanceof Obstacle) {
+            boolean heal = ((Obstacle) entity).getObstacleType().contains("heal");
+            entity.setCollisionFilter(heal ? CollisionCategory.HEAL : CollisionCategory.OBSTACLE, movers);
+        } else if (entity instanceof com.adventurequest.model.entities.Spike) {
+            entity.setCollisionFilter(CollisionCategory.HAZARD, movers);
+        } else if (entity instanceof Portal) {
+            // Portals are handled by PortalManager, not the collision pass
+            entity.setCollisionFilter(CollisionCategory.PORTAL, CollisionCategory.NONE);
+        } else if (entity instanceof Chest) {
+            // Chests are opened through interaction, not by touching
+            entity.setCollisionFilter(CollisionCategory.CHEST, CollisionCategory.NONE);
+        }
     }
     /**
      * Create an NPC from map object
@@ -75,6 +118,8 @@ public class EntityFactory {
             dialogues = new String[]{"Hello!", "Nice to meet you!"};
         }
         NPC npc = new NPC(id, x, y, name, dialogues);
+        // Optional animation clip, e.g. "necromancer_1/idle" (see AnimationLibrary)
+        npc.setAnimationId(object.getProperties().get("animation", String.class));
         Gdx.app.log("EntityFactory", "Created NPC: " + name + " at (" + x + "," + y + ")");
         return npc;
     }
@@ -85,6 +130,7 @@ public class EntityFactory {
         String id = object.getName() != null ? object.getName() : "obstacle_" + (entityIdCounter++);
         String obstacleType = object.getProperties().get("obstacleType", "generic", String.class);
         Obstacle obstacle = new Obstacle(id, x, y, width, height, obstacleType);
+        obstacle.setPixelMask(maskCache.get(obstacleType, width, height));
         Gdx.app.log("EntityFactory", "Created Obstacle: " + obstacleType + " at (" + x + "," + y + ")");
         return obstacle;
     }
@@ -0,0 +1,55 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.ImageResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.XmlReader.Element;
+/**
+ * HeadlessTmxMapLoader - Loads .tmx maps without their tileset images
+ *
+ * - Layers, properties, objects and tiles are parsed as usual, so the
+ *   collision layer and the entities come out the same as in the game
+ * - Tileset images are never read or uploaded: every tile is created
+ *   with no texture region, which needs no GL context
+ * - Spritesheet tilesets are cut from the image size written in the
+ *   .tmx/.tsx (Tiled always writes it)
+ *
+ * Used by TiledMapLoader when there is no SpriteLoader (headless soak
+ * and replay runs). Image layers are not supported.
+ */
+public class HeadlessTmxMapLoader extends TmxMapLoader {
+    // Resolver for a map without images
+    private static final ImageResolver NO_IMAGES = name -> null;
+    @Override
+    public TiledMap load(String fileName, TmxMapLoader.Parameters parameter) {
+        FileHandle tmxFile = resolve(fileName);
+        this.root = xml.parse(tmxFile);
+        return loadTiledMap(tmxFile, parameter, NO_IMAGES);
+    }
+    /**
+     * Create the tiles of a tileset with the same ids TmxMapLoader gives them
+     */
+    @Override
+    protected void addStaticTiles(FileHandle tmxFile, ImageResolver imageResolver, TiledMapTileSet tileSet,
+                                  Element element, Array<Element> tileElements, String name, int firstgid,
+                                  int tilewidth, int tileheight, int spacing, int margin, String source,
+                                  int offsetX, int offsetY, String imageSource, int imageWidth, int imageHeight,
+                                  FileHandle image) {
+        if (image != null) {
+            // One image for the whole tileset: one tile per grid cell
+            int id = firstgid;
+            for (int y = margin; y <= imageHeight - tileheight; y += tileheight + spacing) {
+                for (int x = margin; x <= imageWidth - tilewidth; x += tilewidth + spacing) {
+                    addStaticTiledMapTile(tileSet, null, id++, offsetX, offsetY);
+                }
+            }
+        } else {
+            // Every tile has its own image
+            for (Element tileElement : tileElements) {
+                addStaticTiledMapTile(tileSet, null, firstgid + tileElement.getIntAttribute("id", 0), offsetX, offsetY);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * PixmapDecodePool - Decodes images on worker threads, uploads them on the render thread
+ *
+ * - submit() queues an image; one worker per core reads and decodes it
+ *   into a Pixmap, scaling it down to a maximum size if asked
+ * - Decoded pixmaps wait in a bounded queue: when the render thread falls
+ *   behind, workers block instead of piling up decoded images in memory
+ * - drain() runs on the render thread once per frame and turns decoded
+ *   pixmaps into textures until its time budget is spent
+ *
+ * Decoding (CPU, worker threads) and uploading (GL, render thread) are
+ * timed separately; each batch (from the first submit until nothing is
+ * pending) is logged when it completes.
+ */
+public class PixmapDecodePool {
+    /**
+     * Receives each texture on the render thread (null if the image could not be decoded)
+     */
+    public interface Callback {
+        void loaded(FileHandle file, Texture texture);
+    }
+    private static class Job {
+        final FileHandle file;
+        final int maxSize;
+        final Callback callback;
+        Pixmap pixmap;
+        Job(FileHandle file, int maxSize, Callback callback) {
+            this.file = file;
+            this.maxSize = maxSize;
+            this.callback = callback;
+        }
+    }
+    // Decoded pixmaps allowed to wait for upload, per worker
+    private static final int QUEUED_PER_THREAD = 4;
+    private final int threads;
+    private final ExecutorService workers;
+    private final BlockingQueue<Job> decoded;
+    // Submitted and not yet handed to their callback
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean disposed;
+    // Totals
+    private final AtomicLong decodeNanos = new AtomicLong();
+    private final AtomicInteger decodedCount = new AtomicInteger();
+    private long uploadNanos;
+    private int uploadedCount;
+    // Current batch
+    private long batchStart;
+    private long batchDecodeNanos;
+    private long batchUploadNanos;
+    private int batchCount;
+    private final AtomicLong lastDecodeEnd = new AtomicLong();
+    public PixmapDecodePool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    /**
+     * @param threads Number of decode workers
+     */
+    public PixmapDecodePool(int threads) {
+        this.threads = Math.max(1, threads);
+        this.decoded = new ArrayBlockingQueue<>(this.threads * QUEUED_PER_THREAD);
+        AtomicInteger index = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "pixmap-decode-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    /**
+     * Queue an image at its full size
+     */
+    public void submit(FileHandle file, Callback callback) {
+        submit(file, 0, callback);
+    }
+    /**
+     * Queue an image (render thread)
+     * @param maxSize Largest width or height to keep; bigger images are
+     *                scaled down on the worker (0 = keep the full size)
+     * @param callback Called from drain() with the texture
+     */
+    public void submit(FileHandle file, int maxSize, Callback callback) {
+        if (disposed) {
+            return;
+        }
+        if (pending.getAndIncrement() == 0) {
+            batchStart = System.nanoTime();
+            batchDecodeNanos = decodeNanos.get();
+            batchUploadNanos = uploadNanos;
+            batchCount = 0;
+        }
+        Job job = new Job(file, maxSize, callback);
+        workers.execute(() -> decode(job));
+    }
+    /**
+     * Upload decoded images and hand them to their callbacks (render thread)
+     * @param budgetMillis Time to spend; at least one image is uploaded if one is ready
+     * @return number of images handed out
+     */
+    public int drain(int budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        int count = 0;
+        Job job;
+        while ((job = decoded.poll()) != null) {
+            long start = System.nanoTime();
+            Texture texture = null;
+            if (job.pixmap != null) {
+                try {
+                    texture = new Texture(job.pixmap);
+                    texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+                } catch (Exception e) {
+                    Gdx.app.error("PixmapDecodePool", "Could not upload " + job.file.path() + ": " + e.getMessage());
+                } finally {
+                    job.pixmap.dispose();
+                }
+            }
+            long end = System.nanoTime();
+            uploadNanos += end - start;
+            uploadedCount++;
+            batchCount++;
+            count++;
+            job.callback.loaded(job.file, texture);
+            if (pending.decrementAndGet() == 0) {
+                logBatch();
+            }
+            if (end >= deadline) {
+                break;
+            }
+        }
+        return count;
+    }
+    /**
+     * Worker side: read, decode and scale one image, then wait for room in the queue
+     */
+    private void decode(Job job) {
+        if (disposed) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            job.pixmap = scaleDown(new Pixmap(job.file), job.maxSize);
+        } catch (Exception e) {
+            Gdx.app.error("PixmapDecodePool", "Could not decode " + job.file.path() + ": " + e.getMessage());
+        }
+        long end = System.nanoTime();
+        decodeNanos.addAndGet(end - start);
+        decodedCount.incrementAndGet();
+        lastDecodeEnd.accumulateAndGet(end, Math::max);
+        try {
+            decoded.put(job);
+        } catch (InterruptedException e) {
+            // Disposed while waiting
+            if (job.pixmap != null) {
+                job.pixmap.dispose();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+    private static Pixmap scaleDown(Pixmap pixmap, int maxSize) {
+        int width = pixmap.getWidth();
+        int height = pixmap.getHeight();
+        if (maxSize <= 0 || (width <= maxSize && height <= maxSize)) {
+            return pixmap;
+        }
+        float scale = Math.min((float) maxSize / width, (float) maxSize / height);
+        int scaledWidth = Math.max(1, Math.round(width * scale));
+        int scaledHeight = Math.max(1, Math.round(height * scale));
+        Pixmap scaled = new Pixmap(scaledWidth, scaledHeight, pixmap.getFormat());
+        scaled.setBlending(Pixmap.Blending.None);
+        scaled.setFilter(Pixmap.Filter.BiLinear);
+        scaled.drawPixmap(pixmap, 0, 0, width, height, 0, 0, scaledWidth, scaledHeight);
+        pixmap.dispose();
+        return scaled;
+    }
+    private void logBatch() {
+        long decodeWall = Math.max(0, lastDecodeEnd.get() - batchStart);
+        Gdx.app.log("PixmapDecodePool", batchCount + " images: decoded in " + decodeWall / 1_000_000
+            + " ms on " + threads + " threads (" + (decodeNanos.get() - batchDecodeNanos) / 1_000_000
+            + " ms CPU), uploaded in " + (uploadNanos - batchUploadNanos) / 1_000_000 + " ms");
+    }
+    /**
+     * Images submitted and not yet handed out
+     */
+    public int getPending() {
+        return pending.get();
+    }
+    public int getThreads() {
+        return threads;
+    }
+    /**
+     * Total worker time spent decoding (summed over workers)
+     */
+    public long getDecodeNanos() {
+        return decodeNanos.get();
+    }
+    public int getDecodedCount() {
+        return decodedCount.get();
+    }
+    /**
+     * Total render thread time spent uploading
+     */
+    public long getUploadNanos() {
+        return uploadNanos;
+    }
+    public int getUploadedCount() {
+        return uploadedCount;
+    }
+    /**
+     * Stop the workers and free decoded images that were never uploaded
+     */
+    public void dispose() {
+        disposed = true;
+        workers.shutdownNow();
+        try {
+            // Let interrupted workers put back or free what they hold
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Job job;
+        while ((job = decoded.poll()) != null) {
+            if (job.pixmap != null) {
+                job.pixmap.dispose();
+            }
+        }
+        pending.set(0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * SpriteAtlas - Sprite images packed into a few texture pages, by name
+ *
+ * The packTextures Gradle task packs assets/sprites into assets/atlas
+ * (see build.gradle). Regions are named after their source file without
+ * extension ("npc", "player").
+ *
+ * Entities drawn from regions of the same page don't switch textures,
+ * so SpriteBatch can draw them all in one call instead of flushing for
+ * each sprite. Atlases that haven't been packed are skipped; lookups then
+ * return null and SpriteLoader falls back to standalone textures.
+ */
+public class SpriteAtlas {
+    // Atlases produced by the packTextures task
+    public static final String[] DEFAULT_ATLASES = { "atlas/sprites.atlas" };
+    private final List<TextureAtlas> atlases = new ArrayList<>();
+    private final Map<String, TextureRegion> regions = new HashMap<>();
+    // Atlases owned by an AssetManager are left for it to dispose
+    private boolean ownsAtlases = true;
+    public SpriteAtlas() {
+        this(DEFAULT_ATLASES);
+    }
+    /**
+     * @param paths Atlas files (relative to assets folder); missing ones are skipped
+     */
+    public SpriteAtlas(String... paths) {
+        for (String path : paths) {
+            FileHandle file = Gdx.files.internal(path);
+            if (!file.exists()) {
+                Gdx.app.log("SpriteAtlas", "No atlas " + path + " (run the packTextures task); using separate textures");
+                continue;
+            }
+            try {
+                add(path, new TextureAtlas(file));
+            } catch (Exception e) {
+                Gdx.app.error("SpriteAtlas", "Could not load atlas " + path + ": " + e.getMessage());
+            }
+        }
+    }
+    /**
+     * Use atlases already loaded by an AssetManager (see AssetManifest)
+     * @param paths Atlas files; ones the manager hasn't loaded are skipped
+     */
+    public SpriteAtlas(AssetManager assets, String... paths) {
+        ownsAtlases = false;
+        for (String path : paths) {
+            if (assets.isLoaded(path, TextureAtlas.class)) {
+                add(path, assets.get(path, TextureAtlas.class));
+            } else {
+                Gdx.app.log("SpriteAtlas", "Atlas " + path + " not loaded; using separate textures");
+            }
+        }
+    }
+    private void add(String path, TextureAtlas atlas) {
+        atlases.add(atlas);
+        int count = 0;
+        for (TextureAtlas.AtlasRegion region : atlas.getRegions()) {
+            // First atlas wins when two hold the same name
+            if (regions.putIfAbsent(region.name, region) == null) {
+                count++;
+            }
+        }
+        Gdx.app.log("SpriteAtlas", "Loaded " + path + ": " + count + " regions on "
+            + atlas.getTextures().size + " page(s)");
+    }
+    /**
+     * Region of a packed image
+     * @param name Image file name without extension
+     * @return the region, or null if no atlas holds it
+     */
+    public TextureRegion findRegion(String name) {
+        return regions.get(name);
+    }
+    /**
+     * Number of named regions across all atlases
+     */
+    public int size() {
+        return regions.size();
+    }
+    /**
+     * Dispose the atlas pages (unless an AssetManager owns them)
+     */
+    public void dispose() {
+        if (ownsAtlases) {
+            for (TextureAtlas atlas : atlases) {
+                atlas.dispose();
+            }
+        }
+        atlases.clear();
+        regions.clear();
+    }
+}
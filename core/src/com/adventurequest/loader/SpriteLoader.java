@@ -0,0 +1,151 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.adventurequest.model.animation.AnimationClip;
+import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.entities.NPC;
+import com.adventurequest.model.entities.Obstacle;
+import com.adventurequest.model.entities.Player;
+import com.adventurequest.model.entities.Spike;
+/**
+ * SpriteLoader - Hands entities the sprite regions they draw with
+ *
+ * Model classes never load textures themselves, so they can be created
+ * without a GL context. Windowed runs give the EntityFactory a
+ * SpriteLoader; headless runs don't, and entities simply have no sprite.
+ *
+ * Sprites come from the packed SpriteAtlas when it holds them, so most
+ * entities draw from the same texture page. Images missing from the
+ * atlas are borrowed from a TextureCache: every rock of the same type
+ * shares one texture. release() gives an entity's sprites back.
+ *
+ * Animated entities get shared clips from the AnimationLibrary. Large
+ * frame sets (the necromancer sequences) go through the PixmapDecodePool:
+ * decoded on worker threads, uploaded a few per frame by update().
+ */
+public class SpriteLoader {
+    private final TextureCache cache;
+    private final SpriteAtlas atlas;
+    private final PixmapDecodePool decodePool = new PixmapDecodePool();
+    private final AnimationLibrary animations = new AnimationLibrary(this, decodePool);
+    public SpriteLoader() {
+        this(new TextureCache(), new SpriteAtlas());
+    }
+    /**
+     * @param atlas Packed sprites, or null to always load separate textures
+     */
+    public SpriteLoader(TextureCache cache, SpriteAtlas atlas) {
+        this.cache = cache;
+        this.atlas = atlas;
+        // One single-frame clip per player pose ("player_jump_loop")
+        for (Player.Pose pose : Player.Pose.values()) {
+            String name = playerClipId(pose);
+            animations.defineSprites(name, 0f, false, name);
+        }
+        animations.defineNecromancerSets();
+    }
+    private static String playerClipId(Player.Pose pose) {
+        return "player_" + pose.name().toLowerCase();
+    }
+    /**
+     * Borrow and assign the sprites an entity draws with
+     */
+    public void apply(Entity entity) {
+        if (entity instanceof Player) {
+            Player player = (Player) entity;
+            AnimationClip[] clips = new AnimationClip[Player.Pose.values().length];
+            for (Player.Pose pose : Player.Pose.values()) {
+                clips[pose.ordinal()] = animations.acquire(playerClipId(pose));
+            }
+            player.setClips(clips);
+        } else if (entity instanceof Obstacle) {
+            Obstacle obstacle = (Obstacle) entity;
+            obstacle.setRegion(acquire(obstacle.getObstacleType()));
+        } else if (entity instanceof NPC) {
+            NPC npc = (NPC) entity;
+            npc.setRegion(acquire("npc"));
+            if (npc.getAnimationId() != null) {
+                npc.setClip(animations.acquire(npc.getAnimationId()));
+            }
+        } else if (entity instanceof Spike) {
+            ((Spike) entity).setRegion(acquire("spike"));
+        }
+    }
+    /**
+     * Give an entity's sprites back and clear them from the entity
+     */
+    public void release(Entity entity) {
+        if (entity instanceof Player) {
+            Player player = (Player) entity;
+            for (AnimationClip clip : player.getClips()) {
+                animations.release(clip);
+            }
+            player.setClips(null);
+        } else if (entity instanceof Obstacle) {
+            release(entity.getRegion());
+            ((Obstacle) entity).setRegion(null);
+        } else if (entity instanceof NPC) {
+            NPC npc = (NPC) entity;
+            release(npc.getStaticRegion());
+            npc.setRegion(null);
+            animations.release(npc.getClip());
+            npc.setClip(null);
+        } else if (entity instanceof Spike) {
+            release(entity.getRegion());
+            ((Spike) entity).setRegion(null);
+        }
+    }
+    /**
+     * Region of a sprite image (name without extension under sprites/):
+     * from the atlas, else a whole texture from the cache
+     */
+    TextureRegion acquire(String name) {
+        TextureRegion region = atlas != null ? atlas.findRegion(name) : null;
+        if (region != null) {
+            return region;
+        }
+        Texture texture = cache.acquire("sprites/" + name + ".png");
+        return texture != null ? new TextureRegion(texture) : null;
+    }
+    /**
+     * Give back a region from acquire(). Atlas pages live as long as the
+     * loader; the cache ignores textures it doesn't own.
+     */
+    void release(TextureRegion region) {
+        if (region != null) {
+            cache.release(region.getTexture());
+        }
+    }
+    /**
+     * Upload images the decode pool has finished (call once per frame)
+     * @param budgetMillis Render thread time to spend on uploads
+     */
+    public void update(int budgetMillis) {
+        animations.update();
+        decodePool.drain(budgetMillis);
+    }
+    public AnimationLibrary getAnimations() {
+        return animations;
+    }
+    public PixmapDecodePool getDecodePool() {
+        return decodePool;
+    }
+    public TextureCache getCache() {
+        return cache;
+    }
+    public SpriteAtlas getAtlas() {
+        return atlas;
+    }
+    /**
+     * Stop the decode pool, unload the animation clips and dispose the
+     * atlas pages and every cached texture
+     */
+    public void dispose() {
+        decodePool.dispose();
+        animations.dispose();
+        if (atlas != null) {
+            atlas.dispose();
+        }
+        cache.dispose();
+    }
+}
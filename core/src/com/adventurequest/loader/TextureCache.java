@@ -0,0 +1,101 @@
+package com.adventurequest.loader;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+/**
+ * TextureCache - One shared Texture per image path, reference counted
+ *
+ * - acquire(path) loads the texture on first use and counts a reference
+ * - release(texture) drops a reference; the last one disposes the texture
+ * - Paths that failed to load are remembered, so a missing sprite is not
+ *   retried (and logged) for every entity that uses it
+ *
+ * Entities borrow their textures from here, so GPU memory and load time
+ * follow the number of distinct images, not the number of entities.
+ * Textures are GL objects: use the cache from the render thread only.
+ */
+public class TextureCache {
+    private static class Entry {
+        final String path;
+        final Texture texture;
+        int refs;
+        Entry(String path, Texture texture) {
+            this.path = path;
+            this.texture = texture;
+        }
+    }
+    private final Map<String, Entry> byPath = new HashMap<>();
+    private final Map<Texture, Entry> byTexture = new IdentityHashMap<>();
+    private final Set<String> missing = new HashSet<>();
+    /**
+     * Borrow the texture of an image, loading it if needed
+     * @return the texture, or null if it could not be loaded
+     */
+    public Texture acquire(String path) {
+        Entry entry = byPath.get(path);
+        if (entry == null) {
+            if (missing.contains(path)) {
+                return null;
+            }
+            Texture texture;
+            try {
+                texture = new Texture(Gdx.files.internal(path));
+            } catch (Exception e) {
+                Gdx.app.log("TextureCache", "Could not load texture " + path + ": " + e.getMessage());
+                missing.add(path);
+                return null;
+            }
+            entry = new Entry(path, texture);
+            byPath.put(path, entry);
+            byTexture.put(texture, entry);
+            Gdx.app.log("TextureCache", "Loaded texture: " + path);
+        }
+        entry.refs++;
+        return entry.texture;
+    }
+    /**
+     * Give back a borrowed texture (ignored for null or textures not from this cache)
+     */
+    public void release(Texture texture) {
+        if (texture == null) {
+            return;
+        }
+        Entry entry = byTexture.get(texture);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.refs <= 0) {
+            byTexture.remove(texture);
+            byPath.remove(entry.path);
+            texture.dispose();
+        }
+    }
+    /**
+     * Number of references to an image's texture (0 if not loaded)
+     */
+    public int getRefCount(String path) {
+        Entry entry = byPath.get(path);
+        return entry != null ? entry.refs : 0;
+    }
+    /**
+     * Number of textures loaded
+     */
+    public int size() {
+        return byPath.size();
+    }
+    /**
+     * Dispose every texture, borrowed or not
+     */
+    public void dispose() {
+        for (Entry entry : byPath.values()) {
+            entry.texture.dispose();
+        }
+        byPath.clear();
+        byTexture.clear();
+        missing.clear();
+    }
+}
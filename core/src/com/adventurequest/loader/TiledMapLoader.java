@@ -1,5 +1,6 @@
 package com.adventurequest.loader;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.MapObjects;
 import com.badlogic.gdx.maps.MapProperties;
@@ -11,6 +12,7 @@ import com.badlogic.gdx.math.Rectangle;
 import com.adventurequest.model.entities.Entity;
 import com.adventurequest.model.entities.NPC;
 import com.adventurequest.model.entities.Obstacle;
+import com.adventurequest.model.world.CollisionGrid;
 import com.adventurequest.model.world.GameMap;
 import com.adventurequest.model.world.Portal;
 import java.util.ArrayList;
@@ -24,12 +26,25 @@ import java.util.List;
 public class TiledMapLoader {
     private TmxMapLoader tmxLoader;
     private EntityFactory entityFactory;
+    private SpriteLoader sprites;
+    // Maps preloaded by the loading screen (null = always parse the .tmx here)
+    private AssetManager assets;
     /**
-     * Constructor
+     * @param sprites Loads entity textures, or null to load maps and
+     *                entities without any texture (headless)
      */
-    public TiledMapLoader() {
-        this.tmxLoader = new TmxMapLoader();
-        this.entityFactory = new EntityFactory();
+    public TiledMapLoader(SpriteLoader sprites) {
+        this.tmxLoader = sprites != null ? new TmxMapLoader() : new HeadlessTmxMapLoader();
+        this.entityFactory = new EntityFactory(sprites);
+        this.sprites = sprites;
+    }
+    /**
+     * @param sprites Loads entity textures, or null to create entities without them
+     * @param assets Preloaded maps (see AssetManifest), or null
+     */
+    public TiledMapLoader(SpriteLoader sprites, AssetManager assets) {
+        this(sprites);
+        this.assets = assets;
     }
     /**
      * Load a map from a .tmx file
@@ -39,12 +54,17 @@ public class TiledMapLoader {
     public GameMap loadMap(String mapPath) {
         try {
             Gdx.app.log("TiledMapLoader", "Loading map: " + mapPath);
-            // Load the Tiled map
-            TiledMap tiledMap = tmxLoader.load(mapPath);
+            // Load the Tiled map, unless it was preloaded
+            TiledMap tiledMap = AssetManifest.get(assets, mapPath, TiledMap.class);
+            boolean preloaded = tiledMap != null;
+            if (!preloaded) {
+                tiledMap = tmxLoader.load(mapPath);
+            }
             // Get map ID from filename
             String mapId = mapPath.substring(mapPath.lastIndexOf('/') + 1, mapPath.lastIndexOf('.'));
             // Create GameMap
             GameMap gameMap = new GameMap(mapId, tiledMap);
+            gameMap.setOwnsTiledMap(!preloaded);
             // Parse map dimensions
             MapProperties properties = tiledMap.getProperties();
             int mapWidth = properties.get("width", Integer.class);
@@ -52,16 +72,19 @@ public class TiledMapLoader {
             int tileWidth = properties.get("tilewidth", Integer.class);
             int tileHeight = properties.get("tileheight", Integer.class);
             gameMap.setMapDimensions(mapWidth, mapHeight);
+            gameMap.setTileSize(tileWidth, tileHeight);
             // Parse collision layer
-            int[][] collisionLayer = parseCollisionLayer(tiledMap, "collision");
-            if (collisionLayer != null) {
-                gameMap.setCollisionLayer(collisionLayer);
+            CollisionGrid collisionGrid = parseCollisionLayer(tiledMap, "collision");
+            if (collisionGrid != null) {
+                gameMap.setCollisionGrid(collisionGrid);
+                gameMap.buildDistanceField();
             }
             // Parse entities from object layers
             List<Entity> entities = parseEntities(tiledMap);
             for (Entity entity : entities) {
                 gameMap.addEntity(entity);
             }
+            gameMap.buildStaticTree();
             // Parse portals
             List<Portal> portals = parsePortals(tiledMap);
             for (Portal portal : portals) {
@@ -69,7 +92,7 @@ public class TiledMapLoader {
             }
             Gdx.app.log("TiledMapLoader", "Map loaded successfully: " + mapId);
             Gdx.app.log("TiledMapLoader", "  - Dimensions: " + mapWidth + "x" + mapHeight);
-            Gdx.app.log("TiledMapLoader", "  - Entities: " + entities.size());
+            Gdx.app.log("TiledMapLoader", "  - Entities: " + entities.size() + " (" + gameMap.getStaticTree().size() + " static)");
             Gdx.app.log("TiledMapLoader", "  - Portals: " + portals.size());
             return gameMap;
         } catch (Exception e) {
@@ -77,10 +100,16 @@ public class TiledMapLoader {
             return null;
         }
     }
+    /**
+     * Free what loadMap() acquired for a map nobody will use (render thread)
+     */
+    public void unloadMap(GameMap gameMap) {
+        gameMap.dispose(sprites);
+    }
     /**
      * Parse collision layer from Tiled map
      */
-    private int[][] parseCollisionLayer(TiledMap tiledMap, String layerName) {
+    private CollisionGrid parseCollisionLayer(TiledMap tiledMap, String layerName) {
         TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(layerName);
         if (layer == null) {
             Gdx.app.log("TiledMapLoader", "No collision layer found");
@@ -88,12 +117,14 @@ public class TiledMapLoader {
         }
         int width = layer.getWidth();
         int height = layer.getHeight();
-        int[][] collision = new int[height][width];
-        // Parse tiles (1 = collision, 0 = no collision)
+        CollisionGrid collision = new CollisionGrid(width, height);
+        // Parse tiles (any tile = collision)
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 TiledMapTileLayer.Cell cell = layer.getCell(x, y);
-                collision[y][x] = (cell != null && cell.getTile() != null) ? 1 : 0;
+                if (cell != null && cell.getTile() != null) {
+                    collision.set(x, y, true);
+                }
             }
         }
         return collision;
@@ -0,0 +1,69 @@
+package com.adventurequest.model;
+import com.adventurequest.model.entities.Entity;
+import java.util.Arrays;
+/**
+ * EntityCommandBuffer - Spawns and despawns queued during a tick
+ *
+ * Adding or removing entities while the store is being iterated (entity
+ * updates, collision callbacks) would move slots under the loop. Instead
+ * the requests are recorded here and applied together at one fixed point
+ * of the tick, in the order they were issued.
+ *
+ * Commands are kept in two parallel arrays that are reused every tick,
+ * so queueing never allocates once the buffer has grown.
+ */
+public class EntityCommandBuffer {
+    private Entity[] entities = new Entity[16];
+    private boolean[] adds = new boolean[16];
+    private int size;
+    /**
+     * Queue an entity to be added
+     */
+    public void add(Entity entity) {
+        push(entity, true);
+    }
+    /**
+     * Queue an entity to be removed
+     */
+    public void remove(Entity entity) {
+        push(entity, false);
+    }
+    private void push(Entity entity, boolean add) {
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+            adds = Arrays.copyOf(adds, size * 2);
+        }
+        entities[size] = entity;
+        adds[size] = add;
+        size++;
+    }
+    /**
+     * Apply every queued command to the registry and empty the buffer
+     * @return number of commands applied
+     */
+    public int apply(EntityRegistry registry) {
+        int count = size;
+        for (int i = 0; i < count; i++) {
+            if (adds[i]) {
+                registry.add(entities[i]);
+            } else {
+                registry.remove(entities[i]);
+            }
+        }
+        clear();
+        return count;
+    }
+    /**
+     * Drop every queued command
+     */
+    public void clear() {
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+    }
+    public int size() {
+        return size;
+    }
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,261 @@
+package com.adventurequest.model;
+import com.adventurequest.model.entities.CollisionCategory;
+import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.entities.EntityStore;
+import com.adventurequest.model.entities.Portal;
+import com.adventurequest.model.interfaces.Interactable;
+import com.adventurequest.model.interfaces.Updatable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+/**
+ * EntityRegistry - Indexes the entities in play
+ *
+ * Wraps the EntityStore with:
+ * - an id -> entity hash index
+ * - typed lists (portals, hazards, interactables)
+ * - the awake set: Updatable entities that currently want ticks
+ *
+ * The indexes are updated as entities are added and removed, so lookups
+ * never scan the whole entity list, and removal is O(1): the typed lists
+ * swap-remove, and an entity's awake list entry is dropped lazily like a
+ * sleeping one's.
+ *
+ * Entities that are not Updatable are never ticked. Updatable ones start
+ * awake, fall asleep when keepAwake() returns false, and are woken by
+ * wake() (contacts, interactions). Sleeping is lazy: the entity's AWAKE
+ * flag is cleared and its list entry is dropped on the next update pass.
+ *
+ * Awake entities far from the player are ticked less often, following
+ * the SimulationLod bands. No time is dropped: an entity that skipped
+ * ticks gets all of it back, split into updates of at most MAX_STEP
+ * seconds so a long catch-up doesn't turn into one huge step.
+ */
+public class EntityRegistry {
+    // Collision categories that hurt the player on contact (see CollisionManager)
+    private static final int HAZARD_CATEGORIES = CollisionCategory.OBSTACLE;
+    // Longest single update given to an entity (longer catch-ups are split)
+    public static final float MAX_STEP = 0.25f;
+    private final EntityStore store = new EntityStore();
+    private final Map<String, Entity> byId = new HashMap<>();
+    private final IndexedList<Portal> portals = new IndexedList<>();
+    private final IndexedList<Entity> hazards = new IndexedList<>();
+    private final IndexedList<Interactable> interactables = new IndexedList<>();
+    // Entities with the SCHEDULED flag, in wake order, plus stale entries
+    // of removed entities (dropped by the next updateAwake)
+    private final List<Entity> awake = new ArrayList<>();
+    // Removed entities whose awake entry is still in the list
+    private final Set<Entity> staleAwake = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Add an entity (ignored if it is already registered)
+     * @return true if it was added
+     */
+    public boolean add(Entity entity) {
+        if (entity.getStore() == store) {
+            return false;
+        }
+        store.add(entity);
+        byId.put(entity.getId(), entity);
+        if (entity instanceof Portal) {
+            portals.add((Portal) entity);
+        }
+        if (isHazard(entity)) {
+            hazards.add(entity);
+        }
+        if (entity instanceof Interactable) {
+            interactables.add((Interactable) entity);
+        }
+        if (entity instanceof Updatable) {
+            wake(entity);
+        }
+        return true;
+    }
+    /**
+     * Remove an entity
+     * @return true if it was registered
+     */
+    public boolean remove(Entity entity) {
+        if (entity.getStore() != store) {
+            return false;
+        }
+        if (store.hasFlag(entity.getIndex(), EntityStore.SCHEDULED)) {
+            // Left in the awake list; updateAwake drops it
+            staleAwake.add(entity);
+        }
+        store.remove(entity);
+        // Another entity may have taken over a duplicate id
+        if (byId.get(entity.getId()) == entity) {
+            byId.remove(entity.getId());
+        }
+        if (entity instanceof Portal) {
+            portals.remove((Portal) entity);
+        }
+        if (isHazard(entity)) {
+            hazards.remove(entity);
+        }
+        if (entity instanceof Interactable) {
+            interactables.remove((Interactable) entity);
+        }
+        return true;
+    }
+    /**
+     * Remove every entity
+     */
+    public void clear() {
+        store.clear();
+        byId.clear();
+        portals.clear();
+        hazards.clear();
+        interactables.clear();
+        awake.clear();
+        staleAwake.clear();
+    }
+    /**
+     * Wake an entity so it is ticked again (ignored unless it is a registered Updatable)
+     */
+    public void wake(Entity entity) {
+        if (!(entity instanceof Updatable) || entity.getStore() != store) {
+            return;
+        }
+        int slot = entity.getIndex();
+        store.setFlag(slot, EntityStore.AWAKE, true);
+        if (!store.hasFlag(slot, EntityStore.SCHEDULED)) {
+            store.setFlag(slot, EntityStore.SCHEDULED, true);
+            // Re-added before its old entry was dropped: the old entry is live again
+            if (!staleAwake.remove(entity)) {
+                awake.add(entity);
+            }
+        }
+    }
+    /**
+     * Stop ticking an entity until it is woken
+     */
+    public void sleep(Entity entity) {
+        if (entity.getStore() == store) {
+            store.setFlag(entity.getIndex(), EntityStore.AWAKE, false);
+        }
+    }
+    public boolean isAwake(Entity entity) {
+        return entity.getStore() == store && store.hasFlag(entity.getIndex(), EntityStore.AWAKE);
+    }
+    /**
+     * Tick every awake, active entity, then drop the ones that fell asleep.
+     * Entities woken during the pass are kept and ticked from the next pass.
+     */
+    public void updateAwake(float deltaTime) {
+        updateAwake(deltaTime, null);
+    }
+    /**
+     * Same as updateAwake(deltaTime), but entities are only ticked as often
+     * as their LOD band allows; skipped time is handed to their next update.
+     * @param lod Distance bands for this tick (null = tick everything)
+     */
+    public void updateAwake(float deltaTime, SimulationLod lod) {
+        int n = awake.size();
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            Entity entity = awake.get(i);
+            if (entity.getStore() != store) {
+                // Removed since it was scheduled
+                staleAwake.remove(entity);
+                continue;
+            }
+            int slot = entity.getIndex();
+            if (store.hasFlag(slot, EntityStore.AWAKE) && store.isActive(slot)) {
+                float dt = lod == null ? deltaTime : lodDelta(lod, slot, deltaTime);
+                if (dt >= 0f) {
+                    Updatable updatable = (Updatable) entity;
+                    // Split a long catch-up; stop if an update deactivates the entity
+                    while (dt > MAX_STEP && store.isActive(slot)) {
+                        updatable.update(MAX_STEP);
+                        dt -= MAX_STEP;
+                    }
+                    if (store.isActive(slot)) {
+                        updatable.update(dt);
+                    }
+                    if (!updatable.keepAwake()) {
+                        store.setFlag(slot, EntityStore.AWAKE, false);
+                    }
+                }
+            }
+            if (store.hasFlag(slot, EntityStore.AWAKE)) {
+                awake.set(kept++, entity);
+            } else {
+                store.setFlag(slot, EntityStore.SCHEDULED, false);
+            }
+        }
+        for (int i = n; i < awake.size(); i++) {
+            Entity entity = awake.get(i);
+            if (entity.getStore() == store) {
+                awake.set(kept++, entity);
+            } else {
+                staleAwake.remove(entity);
+            }
+        }
+        awake.subList(kept, awake.size()).clear();
+    }
+    /**
+     * Time to tick a slot by this tick: its pending time plus deltaTime if
+     * its band is due, else -1 (and the time is kept for later)
+     */
+    private float lodDelta(SimulationLod lod, int slot, float deltaTime) {
+        float pending = store.getPendingTime(slot) + deltaTime;
+        boolean due;
+        switch (lod.band(store, slot)) {
+            case SimulationLod.NEAR:
+                due = true;
+                break;
+            case SimulationLod.MID:
+                due = lod.isMidTick(slot);
+                break;
+            default:
+                due = false;
+                break;
+        }
+        if (!due) {
+            store.setPendingTime(slot, pending);
+            return -1f;
+        }
+        store.setPendingTime(slot, 0f);
+        return pending;
+    }
+    /**
+     * Number of entries in the awake list (sleeping and removed entities
+     * count until the next update pass drops them)
+     */
+    public int getAwakeCount() {
+        return awake.size();
+    }
+    public boolean contains(Entity entity) {
+        return entity.getStore() == store;
+    }
+    public Entity getById(String id) {
+        return byId.get(id);
+    }
+    public EntityStore getStore() {
+        return store;
+    }
+    public int size() {
+        return store.size();
+    }
+    private static boolean isHazard(Entity entity) {
+        return (entity.getCollisionCategory() & HAZARD_CATEGORIES) != 0;
+    }
+    // Typed views (read-only)
+    public List<Portal> getPortals() {
+        return portals.view();
+    }
+    /**
+     * Entities that hurt the player on contact
+     */
+    public List<Entity> getHazards() {
+        return hazards.view();
+    }
+    public List<Interactable> getInteractables() {
+        return interactables.view();
+    }
+}
@@ -1,5 +1,6 @@
 package com.adventurequest.model;
 import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.entities.EntityStore;
 import com.adventurequest.model.entities.Player;
 import com.adventurequest.model.entities.PowerUp;
 import com.adventurequest.model.world.GameMap;
@@ -11,7 +12,8 @@ import java.util.List;
  * Holds all game data:
  * - Current map
  * - Player
- * - All entities
+ * - All entities of the current map
+ * - The world: other visited maps, kept in memory and ticked in the background
  * - Game state flags
  *
  * This is the "Model" in MVC
@@ -20,7 +22,14 @@ public class GameState {
     // Current game state
     private Player player;
     private GameMap currentMap;
-    private List<Entity> entities;
+    // Entities in play on the current map: parallel-array store plus id and type indexes
+    private EntityRegistry registry;
+    // Resident maps, each with its own registry
+    private World world;
+    // Spawns/despawns requested during the tick, applied by applyPendingChanges
+    private EntityCommandBuffer pending;
+    // How often entities are ticked depending on their distance to the player
+    private SimulationLod lod;
     private List<PowerUp> powerUps;
     // Game state flags
     private boolean paused;
@@ -29,7 +38,10 @@ public class GameState {
      * Constructor
      */
     public GameState() {
-        this.entities = new ArrayList<>();
+        this.registry = new EntityRegistry();
+        this.world = new World();
+        this.pending = new EntityCommandBuffer();
+        this.lod = new SimulationLod();
         this.powerUps = new ArrayList<>();
         this.paused = false;
         this.dialogueActive = false;
@@ -40,19 +52,33 @@ public class GameState {
     public void initialize(Player player, GameMap startingMap) {
         this.player = player;
         this.currentMap = startingMap;
-        // Clear existing entities
-        entities.clear();
-        // Add player to entities list FIRST
-        entities.add(player);
-        // Add all map entities to game state for collision detection
-        // Make sure we don't add the player again if it's in the map entities
-        if (startingMap != null && startingMap.getMapEntities() != null) {
-            for (Entity mapEntity : startingMap.getMapEntities()) {
-                if (mapEntity != null && mapEntity != player && !entities.contains(mapEntity)) {
-                    entities.add(mapEntity);
-                }
-            }
-            com.badlogic.gdx.Gdx.app.log("GameState", "Added " + startingMap.getMapEntities().size() + " map entities (player + " + (entities.size() - 1) + " others)");
+        // Drop existing entities and maps (and anything queued for the old map)
+        registry.clear();
+        world.clear();
+        pending.clear();
+        // The starting map's registry holds its entities
+        registry = startingMap != null ? world.enter(startingMap).getRegistry() : new EntityRegistry();
+        // (the registry ignores the player if it's in the map entities)
+        registry.add(player);
+        if (startingMap != null) {
+            com.badlogic.gdx.Gdx.app.log("GameState", "Added " + startingMap.getMapEntities().size() + " map entities (player + " + (registry.size() - 1) + " others)");
+        }
+        bindPlayerToMap();
+    }
+    /**
+     * Point the player's movement at the current map's collision tiles
+     * and move the player out of any wall it landed in
+     */
+    private void bindPlayerToMap() {
+        if (player == null) {
+            return;
+        }
+        if (currentMap == null) {
+            player.setCollisionGrid(null, null, 32, 32);
+        } else {
+            player.setCollisionGrid(currentMap.getCollisionGrid(), currentMap.getDistanceField(),
+                currentMap.getTileWidth(), currentMap.getTileHeight());
+            player.pushOutOfWalls();
         }
     }
     /**
@@ -62,37 +88,41 @@ public class GameState {
         if (paused) {
             return;
         }
-        // Update all entities
-        for (Entity entity : entities) {
-            if (entity.isActive()) {
-                entity.update(deltaTime);
-            }
-        }
+        // Only awake Updatable entities are ticked; static scenery is skipped entirely,
+        // and entities far from the player are ticked less often
+        lod.beginTick(player, currentMap);
+        registry.updateAwake(deltaTime, lod);
+        // Other resident maps get coarse, budgeted ticks
+        world.updateBackground(deltaTime);
     }
     /**
-     * Add an entity to the game
+     * Add an entity to the game.
+     * Deferred: the entity joins the store at the next applyPendingChanges,
+     * so this is safe to call from entity updates and collision callbacks.
      */
     public void addEntity(Entity entity) {
-        if (!entities.contains(entity)) {
-            entities.add(entity);
-        }
+        pending.add(entity);
     }
     /**
-     * Remove an entity from the game
+     * Remove an entity from the game (deferred like addEntity)
      */
     public void removeEntity(Entity entity) {
-        entities.remove(entity);
+        pending.remove(entity);
+    }
+    /**
+     * Apply queued adds and removes in the order they were requested.
+     * Called once per tick by GameController, after all iteration is done.
+     */
+    public void applyPendingChanges() {
+        if (!pending.isEmpty()) {
+            pending.apply(registry);
+        }
     }
     /**
      * Get entity by ID
      */
     public Entity getEntityById(String id) {
-        for (Entity entity : entities) {
-            if (entity.getId().equals(id)) {
-                return entity;
-            }
-        }
-        return null;
+        return registry.getById(id);
     }
     // Getters and Setters
     public Player getPlayer() {
@@ -100,15 +130,50 @@ public class GameState {
     }
     public void setPlayer(Player player) {
         this.player = player;
+        bindPlayerToMap();
     }
     public GameMap getCurrentMap() {
         return currentMap;
     }
+    /**
+     * Move the player to another map. The previous map stays resident
+     * (its entities keep their state and tick in the background) and the
+     * new map's entities come into play.
+     */
     public void setCurrentMap(GameMap map) {
+        if (map == currentMap) {
+            bindPlayerToMap();
+            return;
+        }
+        // Spawns/despawns queued this tick belong to the map being left
+        applyPendingChanges();
+        if (player != null) {
+            registry.remove(player);
+        }
         this.currentMap = map;
+        registry = map != null ? world.enter(map).getRegistry() : new EntityRegistry();
+        if (player != null) {
+            registry.add(player);
+        }
+        bindPlayerToMap();
     }
+    /**
+     * Entities in play, in slot order (read-only; use addEntity/removeEntity)
+     */
     public List<Entity> getEntities() {
-        return entities;
+        return registry.getStore().asList();
+    }
+    public EntityStore getStore() {
+        return registry.getStore();
+    }
+    public EntityRegistry getRegistry() {
+        return registry;
+    }
+    public World getWorld() {
+        return world;
+    }
+    public SimulationLod getLod() {
+        return lod;
     }
     public boolean isPaused() {
         return paused;
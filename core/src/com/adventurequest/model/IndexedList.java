@@ -0,0 +1,52 @@
+package com.adventurequest.model;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * IndexedList - List with O(1) removal, backing the EntityRegistry's typed views
+ *
+ * - Each element's position is kept in an identity map
+ * - remove() moves the last element into the hole, so the order is
+ *   the insertion order only until the first removal
+ */
+class IndexedList<T> {
+    private final List<T> items = new ArrayList<>();
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private final List<T> view = Collections.unmodifiableList(items);
+    /**
+     * Append an element (ignored if it is already in the list)
+     */
+    void add(T item) {
+        if (positions.containsKey(item)) {
+            return;
+        }
+        positions.put(item, items.size());
+        items.add(item);
+    }
+    /**
+     * Swap-remove an element (ignored if it is not in the list)
+     */
+    void remove(T item) {
+        Integer index = positions.remove(item);
+        if (index == null) {
+            return;
+        }
+        T last = items.remove(items.size() - 1);
+        if (last != item) {
+            items.set(index, last);
+            positions.put(last, index);
+        }
+    }
+    void clear() {
+        items.clear();
+        positions.clear();
+    }
+    /**
+     * Read-only view that follows the list
+     */
+    List<T> view() {
+        return view;
+    }
+}
@@ -0,0 +1,56 @@
+package com.adventurequest.model;
+import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.world.GameMap;
+/**
+ * ResidentMap - A loaded map kept in memory together with its entities
+ *
+ * Owns the map's EntityRegistry, so the entities keep their state while
+ * the player is on another map, and their timers keep running through
+ * the World's background ticks.
+ */
+public class ResidentMap {
+    private final GameMap map;
+    private final EntityRegistry registry = new EntityRegistry();
+    // Background time not simulated yet
+    private float pendingTime;
+    // World tick of the player's last visit (least recent is evicted first)
+    long lastVisit;
+    ResidentMap(GameMap map) {
+        this.map = map;
+        if (map.getMapEntities() != null) {
+            for (Entity entity : map.getMapEntities()) {
+                if (entity != null) {
+                    registry.add(entity);
+                }
+            }
+        }
+    }
+    /**
+     * Queue simulation time to be run by the next background tick
+     */
+    void accumulate(float deltaTime) {
+        pendingTime += deltaTime;
+    }
+    /**
+     * Run all the pending time as one coarse tick of the awake entities
+     * @return number of entities ticked
+     */
+    int catchUp() {
+        if (pendingTime <= 0f) {
+            return 0;
+        }
+        int ticked = registry.getAwakeCount();
+        registry.updateAwake(pendingTime);
+        pendingTime = 0f;
+        return ticked;
+    }
+    public GameMap getMap() {
+        return map;
+    }
+    public EntityRegistry getRegistry() {
+        return registry;
+    }
+    public float getPendingTime() {
+        return pendingTime;
+    }
+}
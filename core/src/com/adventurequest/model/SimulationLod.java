@@ -0,0 +1,121 @@
+package com.adventurequest.model;
+import com.adventurequest.model.entities.EntityStore;
+import com.adventurequest.model.entities.Player;
+import com.adventurequest.model.world.GameMap;
+/**
+ * SimulationLod - Distance bands that decide how often an entity is ticked
+ *
+ * - NEAR: within nearRadius of the player, ticked every tick
+ * - MID: elsewhere in the camera view, ticked every midInterval-th tick
+ *   (staggered by slot so the work is spread over the ticks)
+ * - OFF_SCREEN: outside the view plus a margin, frozen
+ *
+ * The view is the rectangle the MapRenderer camera settles on: centred
+ * on the player, clamped to the map, VIEW_WIDTH x VIEW_HEIGHT. That is
+ * the fixed logical size of the camera viewport at any window size (the
+ * window letterboxes it), so the bands match what is on screen and don't
+ * depend on the window, which a replay doesn't record.
+ * It is worked out here from the player instead of being read from the
+ * camera, which belongs to the render thread and doesn't exist headless;
+ * this also keeps replays deterministic. The margin covers the camera's
+ * lag behind the player.
+ *
+ * Time from skipped ticks is accumulated per entity (EntityStore pending
+ * time) and passed to the next update, so timers run at the same speed
+ * in every band, off-screen ones included.
+ */
+public class SimulationLod {
+    // Logical view size, shared with the MapRenderer camera
+    public static final float VIEW_WIDTH = 800f;
+    public static final float VIEW_HEIGHT = 600f;
+    // Bands
+    public static final int NEAR = 0;
+    public static final int MID = 1;
+    public static final int OFF_SCREEN = 2;
+    private boolean enabled = true;
+    private float nearRadius = 320f;
+    private int midInterval = 4;
+    private float margin = 64f;
+    // Per-tick state set by beginTick
+    private long tick;
+    private boolean hasFocus;
+    private float focusX;
+    private float focusY;
+    private float viewLeft;
+    private float viewBottom;
+    private float viewRight;
+    private float viewTop;
+    /**
+     * Place the view for this tick (call once per tick, before classifying)
+     */
+    public void beginTick(Player player, GameMap map) {
+        tick++;
+        hasFocus = enabled && player != null;
+        if (!hasFocus) {
+            return;
+        }
+        focusX = player.getX() + player.getWidth() / 2;
+        focusY = player.getY() + player.getHeight() / 2;
+        float halfWidth = VIEW_WIDTH / 2;
+        float halfHeight = VIEW_HEIGHT / 2;
+        float centerX = focusX;
+        float centerY = focusY;
+        // Same clamping as MapRenderer.update
+        if (map != null) {
+            float mapWidth = map.getMapWidth() * map.getTileWidth();
+            float mapHeight = map.getMapHeight() * map.getTileHeight();
+            if (mapWidth > 0) {
+                centerX = Math.max(halfWidth, Math.min(centerX, mapWidth - halfWidth));
+            }
+            if (mapHeight > 0) {
+                centerY = Math.max(halfHeight, Math.min(centerY, mapHeight - halfHeight));
+            }
+        }
+        viewLeft = centerX - halfWidth - margin;
+        viewRight = centerX + halfWidth + margin;
+        viewBottom = centerY - halfHeight - margin;
+        viewTop = centerY + halfHeight + margin;
+    }
+    /**
+     * Band of a store slot for this tick (NEAR when LOD is off or there is no player)
+     */
+    public int band(EntityStore store, int slot) {
+        if (!hasFocus) {
+            return NEAR;
+        }
+        float x = store.getX(slot);
+        float y = store.getY(slot);
+        float width = store.getWidth(slot);
+        float height = store.getHeight(slot);
+        float dx = x + width / 2 - focusX;
+        float dy = y + height / 2 - focusY;
+        if (dx * dx + dy * dy <= nearRadius * nearRadius) {
+            return NEAR;
+        }
+        if (x > viewRight || x + width < viewLeft || y > viewTop || y + height < viewBottom) {
+            return OFF_SCREEN;
+        }
+        return MID;
+    }
+    /**
+     * Check if a MID-band slot gets its update this tick
+     */
+    public boolean isMidTick(int slot) {
+        return (tick + slot) % midInterval == 0;
+    }
+    public boolean isEnabled() {
+        return enabled;
+    }
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    public void setNearRadius(float nearRadius) {
+        this.nearRadius = nearRadius;
+    }
+    public void setMidInterval(int midInterval) {
+        this.midInterval = Math.max(1, midInterval);
+    }
+    public void setMargin(float margin) {
+        this.margin = margin;
+    }
+}
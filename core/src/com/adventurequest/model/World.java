@@ -0,0 +1,175 @@
+package com.adventurequest.model;
+import com.badlogic.gdx.Gdx;
+import com.adventurequest.model.world.GameMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+/**
+ * World - The maps kept in memory and their background simulation
+ *
+ * - The player's map is ticked at full rate by GameState
+ * - Every other resident map collects simulation time and is ticked
+ *   coarsely (once per backgroundStep of accumulated time), so portal
+ *   animations, timers and schedules keep going while nobody watches
+ * - Background ticks share a budget per simulation tick, counted in
+ *   entity updates; maps that don't fit keep their time and go first
+ *   on the next tick (round-robin)
+ * - At most maxResident maps are kept; the least recently visited one
+ *   is dropped when another is entered
+ *
+ * The budget is a work count rather than wall-clock milliseconds so that
+ * runs stay deterministic and replays match.
+ */
+public class World {
+    /**
+     * Told when a map stops being resident (evicted, replaced or cleared)
+     */
+    public interface Listener {
+        void mapDropped(GameMap map);
+    }
+    public static final int DEFAULT_MAX_RESIDENT = 4;
+    // Resident maps, in round-robin order
+    private final List<ResidentMap> maps = new ArrayList<>();
+    private ResidentMap current;
+    private int maxResident = DEFAULT_MAX_RESIDENT;
+    // Seconds of accumulated time before a background map is ticked
+    private float backgroundStep = 0.25f;
+    // Entity updates that background maps may spend per simulation tick
+    private int backgroundBudget = 512;
+    private int cursor;
+    private long tick;
+    private Listener listener;
+    /**
+     * Make a map the player's map, loading it in as resident if needed.
+     * Time the map collected in the background is run first.
+     * @return the resident map
+     */
+    public ResidentMap enter(GameMap map) {
+        ResidentMap resident = get(map.getMapId());
+        if (resident != null && resident.getMap() != map) {
+            // Reloaded from disk: the new instance replaces the old one
+            remove(resident);
+            resident = null;
+        }
+        if (resident == null) {
+            resident = new ResidentMap(map);
+            maps.add(resident);
+        } else {
+            resident.catchUp();
+        }
+        current = resident;
+        resident.lastVisit = tick;
+        evict();
+        return resident;
+    }
+    /**
+     * Run the background ticks of the maps the player isn't on
+     * (call once per simulation tick)
+     */
+    public void updateBackground(float deltaTime) {
+        tick++;
+        int size = maps.size();
+        if (size <= 1) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            ResidentMap resident = maps.get(i);
+            if (resident != current) {
+                resident.accumulate(deltaTime);
+            }
+        }
+        int spent = 0;
+        for (int visited = 0; visited < size; visited++) {
+            ResidentMap resident = maps.get(cursor % size);
+            if (resident != current && resident.getPendingTime() >= backgroundStep) {
+                int cost = resident.getRegistry().getAwakeCount();
+                if (spent > 0 && spent + cost > backgroundBudget) {
+                    // Out of budget: this map goes first next tick
+                    break;
+                }
+                spent += resident.catchUp();
+            }
+            cursor = (cursor + 1) % size;
+        }
+    }
+    /**
+     * Drop least recently visited maps beyond maxResident
+     */
+    private void evict() {
+        while (maps.size() > maxResident) {
+            ResidentMap oldest = null;
+            for (int i = 0; i < maps.size(); i++) {
+                ResidentMap resident = maps.get(i);
+                if (resident != current && (oldest == null || resident.lastVisit < oldest.lastVisit)) {
+                    oldest = resident;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            remove(oldest);
+            Gdx.app.log("World", "Map no longer resident: " + oldest.getMap().getMapId());
+        }
+    }
+    private void remove(ResidentMap resident) {
+        int index = maps.indexOf(resident);
+        maps.remove(index);
+        if (index < cursor) {
+            cursor--;
+        }
+        if (cursor >= maps.size()) {
+            cursor = 0;
+        }
+        resident.getRegistry().clear();
+        if (current == resident) {
+            current = null;
+        }
+        if (listener != null) {
+            listener.mapDropped(resident.getMap());
+        }
+    }
+    /**
+     * Drop every resident map
+     */
+    public void clear() {
+        for (int i = 0; i < maps.size(); i++) {
+            maps.get(i).getRegistry().clear();
+            if (listener != null) {
+                listener.mapDropped(maps.get(i).getMap());
+            }
+        }
+        maps.clear();
+        current = null;
+        cursor = 0;
+    }
+    /**
+     * Resident map with the given id (null if it isn't resident)
+     */
+    public ResidentMap get(String mapId) {
+        for (int i = 0; i < maps.size(); i++) {
+            if (maps.get(i).getMap().getMapId().equals(mapId)) {
+                return maps.get(i);
+            }
+        }
+        return null;
+    }
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+    public ResidentMap getCurrent() {
+        return current;
+    }
+    public List<ResidentMap> getResidentMaps() {
+        return Collections.unmodifiableList(maps);
+    }
+    public void setMaxResident(int maxResident) {
+        this.maxResident = Math.max(1, maxResident);
+        evict();
+    }
+    public void setBackgroundStep(float backgroundStep) {
+        this.backgroundStep = backgroundStep;
+    }
+    public void setBackgroundBudget(int backgroundBudget) {
+        this.backgroundBudget = backgroundBudget;
+    }
+}
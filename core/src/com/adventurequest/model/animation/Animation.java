@@ -0,0 +1,64 @@
+package com.adventurequest.model.animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+/**
+ * Animation - What one entity is playing: a clip, the time into it and a speed
+ *
+ * This is all an animated entity keeps; the frames live in the shared
+ * AnimationClip, so many entities playing the same clip cost a few
+ * bytes each.
+ */
+public class Animation {
+    private AnimationClip clip;
+    private float time;
+    private float speed = 1f;
+    /**
+     * Switch to a clip (restarts it unless it is already playing)
+     */
+    public void play(AnimationClip clip) {
+        if (clip != this.clip) {
+            this.clip = clip;
+            this.time = 0;
+        }
+    }
+    /**
+     * Advance the playing time
+     */
+    public void update(float deltaTime) {
+        time += deltaTime * speed;
+        // Keep looping clips' time small so it doesn't lose float precision
+        if (clip != null && clip.isLooping()) {
+            float duration = clip.getDuration();
+            if (duration > 0 && time >= duration) {
+                time %= duration;
+            }
+        }
+    }
+    /**
+     * Current frame (null if no clip or the clip isn't loaded yet)
+     */
+    public TextureRegion getFrame() {
+        return clip != null ? clip.getFrame(time) : null;
+    }
+    public AnimationClip getClip() {
+        return clip;
+    }
+    public float getTime() {
+        return time;
+    }
+    public void setTime(float time) {
+        this.time = time;
+    }
+    public float getSpeed() {
+        return speed;
+    }
+    public void setSpeed(float speed) {
+        this.speed = speed;
+    }
+    /**
+     * Stop playing and forget the clip
+     */
+    public void clear() {
+        clip = null;
+        time = 0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.adventurequest.model.animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+/**
+ * AnimationClip - The frames of one animation, shared by every entity playing it
+ *
+ * - One clip per animation id, handed out by AnimationLibrary
+ * - Frames are loaded the first time a clip is shown: until then
+ *   getFrame() returns null and flags the clip so the library loads it
+ * - Unused clips are evicted by the library and load again when needed
+ *
+ * Entities don't own clips; their per-instance state is an Animation.
+ * Frames are published as a whole array once loaded, so the simulation
+ * thread may read them while the render thread loads other clips.
+ */
+public class AnimationClip {
+    private final String id;
+    private final float frameDuration;
+    private final boolean looping;
+    private volatile TextureRegion[] frames;
+    private volatile boolean loadRequested;
+    /**
+     * @param frameDuration Seconds per frame
+     * @param looping Restart after the last frame (otherwise hold it)
+     */
+    public AnimationClip(String id, float frameDuration, boolean looping) {
+        this.id = id;
+        this.frameDuration = frameDuration;
+        this.looping = looping;
+    }
+    /**
+     * Frame to show after playing for some time
+     * @return the frame, or null while the clip isn't loaded
+     */
+    public TextureRegion getFrame(float time) {
+        TextureRegion[] frames = this.frames;
+        if (frames == null) {
+            loadRequested = true;
+            return null;
+        }
+        if (frames.length == 1 || frameDuration <= 0) {
+            return frames[0];
+        }
+        int index = (int) (time / frameDuration);
+        if (looping) {
+            index %= frames.length;
+        } else if (index >= frames.length) {
+            index = frames.length - 1;
+        }
+        return frames[index];
+    }
+    /**
+     * Length of one pass through the clip in seconds
+     */
+    public float getDuration() {
+        TextureRegion[] frames = this.frames;
+        return frames != null ? frames.length * frameDuration : 0;
+    }
+    public String getId() {
+        return id;
+    }
+    public float getFrameDuration() {
+        return frameDuration;
+    }
+    public boolean isLooping() {
+        return looping;
+    }
+    public boolean isLoaded() {
+        return frames != null;
+    }
+    /**
+     * Check if the clip was shown while not loaded
+     */
+    public boolean isLoadRequested() {
+        return loadRequested;
+    }
+    /**
+     * Publish the loaded frames (AnimationLibrary only)
+     */
+    public void setFrames(TextureRegion[] frames) {
+        this.frames = frames;
+        this.loadRequested = false;
+    }
+    /**
+     * Frames currently published (null if not loaded)
+     */
+    public TextureRegion[] getFrames() {
+        return frames;
+    }
+}
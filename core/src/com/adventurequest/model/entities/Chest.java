@@ -46,7 +46,7 @@ public class Chest extends Entity {
      */
     @Override
     public void render(SpriteBatch batch) {
-        if (!active) return;
+        if (!isActive()) return;
         // For now, we'll just log that rendering would happen here
         // In a real implementation, we'd draw the appropriate texture
         // batch.draw(isOpen ? openTexture : closedTexture, x, y);
@@ -58,6 +58,10 @@ public class Chest extends Entity {
     public void update(float deltaTime) {
         // Chests don't need updates unless animated
     }
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
     /**
      * Check if chest is open
      */
@@ -0,0 +1,28 @@
+package com.adventurequest.model.entities;
+/**
+ * CollisionCategory - Collision filter bits
+ *
+ * Every entity belongs to exactly one category and carries a mask of the
+ * categories it wants to touch. A pair is only considered when each side's
+ * category is in the other side's mask.
+ */
+public final class CollisionCategory {
+    public static final int NONE = 0;
+    public static final int PLAYER = 1;
+    public static final int NPC = 1 << 1;
+    public static final int OBSTACLE = 1 << 2;
+    public static final int HEAL = 1 << 3;
+    public static final int HAZARD = 1 << 4;
+    public static final int PORTAL = 1 << 5;
+    public static final int CHEST = 1 << 6;
+    /** Number of categories (size of per-category tables) */
+    public static final int COUNT = 7;
+    private CollisionCategory() {
+    }
+    /**
+     * Table index of a single category bit
+     */
+    public static int indexOf(int category) {
+        return Integer.numberOfTrailingZeros(category);
+    }
+}
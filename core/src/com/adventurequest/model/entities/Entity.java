@@ -1,7 +1,9 @@
 package com.adventurequest.model.entities;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import java.util.concurrent.atomic.AtomicInteger;
 /**
  * Abstract base class for all game entities
  *
@@ -11,15 +13,32 @@ import com.badlogic.gdx.math.Vector2;
  * - Inheritance: All game objects extend this class
  *
  * This is the foundation of the entity system
+ *
+ * While in play the entity is a view over its slot in an EntityStore;
+ * position and flags are read from and written to the store's arrays.
  */
 public abstract class Entity {
+    private static final AtomicInteger nextSerial = new AtomicInteger();
     // Core properties
     protected String id;
-    protected Vector2 position;
-    protected Rectangle bounds;
-    protected boolean active;
     protected float width;
     protected float height;
+    // Position and active flag while not attached to a store
+    float x;
+    float y;
+    boolean active;
+    // Store holding this entity's data while in play (null = detached)
+    EntityStore store;
+    // Slot in the store (-1 when not in play)
+    int index = -1;
+    // Never changes and never reused (unlike the slot, which swap-remove moves)
+    private final int serial = nextSerial.getAndIncrement();
+    // Collision filter (see CollisionCategory), filled in by EntityFactory
+    protected int collisionCategory = CollisionCategory.NONE;
+    protected int collisionMask = CollisionCategory.NONE;
+    // Object views for callers that need them, created on first use
+    private Vector2 positionView;
+    private Rectangle boundsView;
     /**
      * Constructor for Entity
      * @param id Unique identifier for this entity
@@ -30,10 +49,10 @@ public abstract class Entity {
      */
     public Entity(String id, float x, float y, float width, float height) {
         this.id = id;
-        this.position = new Vector2(x, y);
+        this.x = x;
+        this.y = y;
         this.width = width;
         this.height = height;
-        this.bounds = new Rectangle(x, y, width, height);
         this.active = true;
     }
     /**
@@ -48,41 +67,102 @@ public abstract class Entity {
      * @param batch SpriteBatch for drawing
      */
     public abstract void render(SpriteBatch batch);
+    /**
+     * Sprite region this entity currently draws with, or null if it draws
+     * something else (render snapshots record this per tick)
+     */
+    public TextureRegion getRegion() {
+        return null;
+    }
     /**
      * Set the position of this entity
-     * Also updates collision bounds
+     * (bounds follow, they share the same storage)
      */
     public void setPosition(float x, float y) {
-        this.position.set(x, y);
-        this.bounds.setPosition(x, y);
+        if (store != null) {
+            store.x[index] = x;
+            store.y[index] = y;
+        } else {
+            this.x = x;
+            this.y = y;
+        }
+    }
+    /**
+     * Move the entity without interpolating from its old position
+     * (portals, respawns, loading)
+     */
+    public void teleport(float x, float y) {
+        setPosition(x, y);
+        if (store != null) {
+            store.prevX[index] = x;
+            store.prevY[index] = y;
+        }
     }
     /**
      * Move the entity by a delta amount
      */
     public void move(float dx, float dy) {
-        setPosition(position.x + dx, position.y + dy);
+        setPosition(getX() + dx, getY() + dy);
     }
     // Getters and Setters (Encapsulation)
+    /**
+     * Process-unique number in creation order; stable for the entity's
+     * lifetime, so it can key state that must survive store moves
+     */
+    public int getSerial() {
+        return serial;
+    }
     public String getId() {
         return id;
     }
+    /**
+     * Current position as a vector.
+     * This is a snapshot refreshed on each call; use setPosition to move.
+     */
     public Vector2 getPosition() {
-        return position;
+        if (positionView == null) {
+            positionView = new Vector2();
+        }
+        return positionView.set(getX(), getY());
     }
     public float getX() {
-        return position.x;
+        return store != null ? store.x[index] : x;
     }
     public float getY() {
-        return position.y;
+        return store != null ? store.y[index] : y;
+    }
+    /**
+     * Position to draw at: interpolated between the last two simulation ticks
+     */
+    public float getRenderX() {
+        return store != null ? store.getRenderX(index) : x;
     }
+    public float getRenderY() {
+        return store != null ? store.getRenderY(index) : y;
+    }
+    /**
+     * Current bounds as a rectangle.
+     * This is a snapshot refreshed on each call; use setPosition to move.
+     */
     public Rectangle getBounds() {
-        return bounds;
+        if (boundsView == null) {
+            boundsView = new Rectangle();
+        }
+        return boundsView.set(getX(), getY(), width, height);
     }
     public boolean isActive() {
-        return active;
+        return store != null ? (store.flags[index] & EntityStore.ACTIVE) != 0 : active;
     }
     public void setActive(boolean active) {
-        this.active = active;
+        if (store != null) {
+            if (active) {
+                store.flags[index] |= EntityStore.ACTIVE;
+            } else {
+                store.flags[index] &= ~EntityStore.ACTIVE;
+            }
+        } else {
+            this.active = active;
+        }
     }
     public float getWidth() {
         return width;
@@ -90,16 +170,88 @@ public abstract class Entity {
     public float getHeight() {
         return height;
     }
+    /**
+     * Slot in the EntityStore this entity is attached to (-1 when not in play)
+     */
+    public int getIndex() {
+        return index;
+    }
+    public EntityStore getStore() {
+        return store;
+    }
+    public int getCollisionCategory() {
+        return collisionCategory;
+    }
+    public int getCollisionMask() {
+        return collisionMask;
+    }
+    /**
+     * Set the collision filter
+     * @param category This entity's single category bit
+     * @param mask Categories this entity can interact with
+     */
+    public void setCollisionFilter(int category, int mask) {
+        this.collisionCategory = category;
+        this.collisionMask = mask;
+        if (store != null) {
+            store.category[index] = category;
+            store.mask[index] = mask;
+        }
+    }
+    /**
+     * Check if the collision filters of both entities accept each other
+     */
+    public boolean canCollideWith(Entity other) {
+        return (collisionCategory & other.collisionMask) != 0
+            && (other.collisionCategory & collisionMask) != 0;
+    }
+    /**
+     * Check if this entity never moves once placed.
+     * Static entities are collected into the map's static collider tree.
+     */
+    public boolean isStatic() {
+        return false;
+    }
     /**
      * Check if this entity overlaps with another
      */
     public boolean overlaps(Entity other) {
-        return this.bounds.overlaps(other.getBounds());
+        if (store != null && other.store == store) {
+            return store.overlaps(index, other.index);
+        }
+        float ax = getX();
+        float ay = getY();
+        float bx = other.getX();
+        float by = other.getY();
+        return ax < bx + other.width && ax + width > bx && ay < by + other.height && ay + height > by;
+    }
+    /**
+     * Solid pixels of this entity's sprite, or null to collide as a rectangle
+     */
+    public PixelMask getPixelMask() {
+        return null;
+    }
+    /**
+     * Exact contact test: bounding boxes first, then pixel masks if either side has one
+     */
+    public boolean touches(Entity other) {
+        if (!overlaps(other)) {
+            return false;
+        }
+        PixelMask mine = getPixelMask();
+        PixelMask theirs = other.getPixelMask();
+        if (mine == null && theirs == null) {
+            return true;
+        }
+        return PixelMask.overlaps(mine, getX(), getY(), width, height,
+                                  theirs, other.getX(), other.getY(), other.width, other.height);
     }
     /**
      * Get distance to another entity
      */
     public float distanceTo(Entity other) {
-        return this.position.dst(other.getPosition());
+        float dx = other.getX() - getX();
+        float dy = other.getY() - getY();
+        return (float) Math.sqrt(dx * dx + dy * dy);
     }
 }
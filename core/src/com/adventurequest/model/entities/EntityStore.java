@@ -0,0 +1,276 @@
+package com.adventurequest.model.entities;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * EntityStore - Data-oriented storage for the entities in play
+ *
+ * Hot per-entity data (position, size, flags, collision filter) lives in
+ * parallel primitive arrays indexed by slot, so update, collision and
+ * render loops stream over contiguous memory instead of chasing objects.
+ * Entity objects are thin views: while attached, their getters and
+ * setters read and write the arrays at their slot ({@link Entity#getIndex()}).
+ *
+ * Slots are dense. Removal moves the last slot into the hole, so it is
+ * O(1) but does not keep insertion order.
+ *
+ * Positions at the start of the current simulation tick are kept in
+ * prevX/prevY so rendering can interpolate between ticks.
+ *
+ * Pending time is simulation time an entity has not been ticked for yet
+ * (see SimulationLod).
+ */
+public class EntityStore {
+    // Flag bits
+    public static final int ACTIVE = 1;
+    public static final int STATIC = 1 << 1;
+    // Wants ticks (see EntityRegistry.wake/sleep)
+    public static final int AWAKE = 1 << 2;
+    // Present in the registry's awake list
+    public static final int SCHEDULED = 1 << 3;
+    Entity[] entities;
+    float[] x;
+    float[] y;
+    float[] prevX;
+    float[] prevY;
+    float[] width;
+    float[] height;
+    int[] flags;
+    int[] category;
+    int[] mask;
+    float[] pendingTime;
+    private int size;
+    // Render interpolation factor between prev and current position
+    private float alpha = 1f;
+    private final List<Entity> view = new AbstractList<Entity>() {
+        @Override
+        public Entity get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return entities[index];
+        }
+        @Override
+        public int size() {
+            return size;
+        }
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Entity && ((Entity) o).store == EntityStore.this;
+        }
+        @Override
+        public int indexOf(Object o) {
+            return contains(o) ? ((Entity) o).index : -1;
+        }
+    };
+    public EntityStore() {
+        this(64);
+    }
+    public EntityStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        entities = new Entity[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        flags = new int[capacity];
+        category = new int[capacity];
+        mask = new int[capacity];
+        pendingTime = new float[capacity];
+    }
+    /**
+     * Move an entity's data into the store
+     * @return the entity's slot
+     */
+    public int add(Entity entity) {
+        if (entity.store == this) {
+            return entity.index;
+        }
+        if (entity.store != null) {
+            entity.store.remove(entity);
+        }
+        if (size == entities.length) {
+            grow(size * 2);
+        }
+        int slot = size++;
+        entities[slot] = entity;
+        x[slot] = entity.x;
+        y[slot] = entity.y;
+        prevX[slot] = entity.x;
+        prevY[slot] = entity.y;
+        width[slot] = entity.width;
+        height[slot] = entity.height;
+        flags[slot] = (entity.active ? ACTIVE : 0) | (entity.isStatic() ? STATIC : 0);
+        category[slot] = entity.collisionCategory;
+        mask[slot] = entity.collisionMask;
+        pendingTime[slot] = 0f;
+        entity.store = this;
+        entity.index = slot;
+        return slot;
+    }
+    /**
+     * Remove an entity, copying its data back into the entity.
+     * The last slot is moved into the freed one (swap-remove).
+     * @return true if the entity was in this store
+     */
+    public boolean remove(Entity entity) {
+        if (entity.store != this) {
+            return false;
+        }
+        int slot = entity.index;
+        detach(slot);
+        int last = --size;
+        if (slot != last) {
+            entities[slot] = entities[last];
+            x[slot] = x[last];
+            y[slot] = y[last];
+            prevX[slot] = prevX[last];
+            prevY[slot] = prevY[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            flags[slot] = flags[last];
+            category[slot] = category[last];
+            mask[slot] = mask[last];
+            pendingTime[slot] = pendingTime[last];
+            entities[slot].index = slot;
+        }
+        entities[last] = null;
+        return true;
+    }
+    /**
+     * Remove every entity (each keeps its current data)
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            detach(i);
+            entities[i] = null;
+        }
+        size = 0;
+    }
+    /**
+     * Copy a slot's data back into its entity and unlink it
+     */
+    private void detach(int slot) {
+        Entity e = entities[slot];
+        e.x = x[slot];
+        e.y = y[slot];
+        e.active = (flags[slot] & ACTIVE) != 0;
+        e.store = null;
+        e.index = -1;
+    }
+    private void grow(int capacity) {
+        entities = Arrays.copyOf(entities, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        category = Arrays.copyOf(category, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        pendingTime = Arrays.copyOf(pendingTime, capacity);
+    }
+    /**
+     * Remember every position as the start of a simulation tick
+     */
+    public void savePrevious() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+    /**
+     * Set how far rendering is between the last two ticks (0 = previous, 1 = current)
+     */
+    public void setInterpolationAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+    public float getInterpolationAlpha() {
+        return alpha;
+    }
+    /**
+     * Interpolated render position of a slot
+     */
+    public float getRenderX(int slot) {
+        return prevX[slot] + (x[slot] - prevX[slot]) * alpha;
+    }
+    public float getRenderY(int slot) {
+        return prevY[slot] + (y[slot] - prevY[slot]) * alpha;
+    }
+    /**
+     * Check if the boxes of two slots overlap (same rule as Rectangle.overlaps)
+     */
+    public boolean overlaps(int a, int b) {
+        return x[a] < x[b] + width[b] && x[a] + width[a] > x[b]
+            && y[a] < y[b] + height[b] && y[a] + height[a] > y[b];
+    }
+    /**
+     * Check if the collision filters of two slots accept each other
+     */
+    public boolean canCollide(int a, int b) {
+        return (category[a] & mask[b]) != 0 && (category[b] & mask[a]) != 0;
+    }
+    /**
+     * Read-only list view in slot order
+     */
+    public List<Entity> asList() {
+        return view;
+    }
+    // Per-slot accessors
+    public int size() {
+        return size;
+    }
+    public Entity get(int slot) {
+        return entities[slot];
+    }
+    public float getX(int slot) {
+        return x[slot];
+    }
+    public float getY(int slot) {
+        return y[slot];
+    }
+    /**
+     * Position at the start of the current tick
+     */
+    public float getPrevX(int slot) {
+        return prevX[slot];
+    }
+    public float getPrevY(int slot) {
+        return prevY[slot];
+    }
+    public float getWidth(int slot) {
+        return width[slot];
+    }
+    public float getHeight(int slot) {
+        return height[slot];
+    }
+    public boolean isActive(int slot) {
+        return (flags[slot] & ACTIVE) != 0;
+    }
+    public boolean isStatic(int slot) {
+        return (flags[slot] & STATIC) != 0;
+    }
+    public boolean hasFlag(int slot, int flag) {
+        return (flags[slot] & flag) != 0;
+    }
+    public void setFlag(int slot, int flag, boolean on) {
+        if (on) {
+            flags[slot] |= flag;
+        } else {
+            flags[slot] &= ~flag;
+        }
+    }
+    public int getCategory(int slot) {
+        return category[slot];
+    }
+    public int getMask(int slot) {
+        return mask[slot];
+    }
+    public float getPendingTime(int slot) {
+        return pendingTime[slot];
+    }
+    public void setPendingTime(int slot, float time) {
+        pendingTime[slot] = time;
+    }
+}
@@ -1,24 +1,30 @@
 package com.adventurequest.model.entities;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.adventurequest.model.animation.Animation;
+import com.adventurequest.model.animation.AnimationClip;
 import com.adventurequest.model.interfaces.Collidable;
 import com.adventurequest.model.interfaces.Interactable;
+import com.adventurequest.model.interfaces.Updatable;
 /**
  * NPC (Non-Player Character) Entity
  *
  * Demonstrates OOP Concepts:
  * - Inheritance: Extends Entity
- * - Interfaces: Implements Interactable and Collidable
+ * - Interfaces: Implements Interactable, Collidable and Updatable
  * - Encapsulation: Dialogue system is internal
  */
-public class NPC extends Entity implements Interactable, Collidable {
+public class NPC extends Entity implements Interactable, Collidable, Updatable {
     // NPC-specific properties
     private String name;
     private String[] dialogues;
     private int currentDialogueIndex;
     private boolean isInteracting;
-    private Texture texture;
+    private TextureRegion texture;
+    // Clip played instead of the static sprite once loaded (null = none)
+    private String animationId;
+    private final Animation animation = new Animation();
     // Interaction settings
     private static final float INTERACTION_RANGE = 48f; // pixels
     /**
@@ -30,29 +36,46 @@ public class NPC extends Entity implements Interactable, Collidable {
         this.dialogues = dialogues;
         this.currentDialogueIndex = 0;
         this.isInteracting = false;
-        // Load NPC texture (placeholder)
-        try {
-            texture = new Texture(Gdx.files.internal("sprites/npc.png"));
-            Gdx.app.log("NPC", "NPC texture loaded successfully for: " + name);
-        } catch (Exception e) {
-            Gdx.app.log("NPC", "Could not load NPC texture: " + e.getMessage());
-            texture = null;
-        }
+        // Sprite is assigned by SpriteLoader (none when running headless)
+        this.texture = null;
     }
     /**
      * Update NPC state
      */
     @Override
     public void update(float deltaTime) {
-        // Static for now
+        // Doesn't move; only the animation runs
+        animation.update(deltaTime);
+    }
+    /**
+     * Only animated NPCs need ticks
+     */
+    @Override
+    public boolean keepAwake() {
+        return animation.getClip() != null;
+    }
+    /**
+     * Current animation frame, or the static sprite while there is none
+     */
+    @Override
+    public TextureRegion getRegion() {
+        TextureRegion frame = animation.getFrame();
+        return frame != null ? frame : texture;
+    }
+    public TextureRegion getStaticRegion() {
+        return texture;
+    }
+    public void setRegion(TextureRegion texture) {
+        this.texture = texture;
     }
     /**
      * Render the NPC
      */
     @Override
     public void render(SpriteBatch batch) {
-        if (texture != null) {
-            batch.draw(texture, position.x, position.y, width, height);
+        TextureRegion region = getRegion();
+        if (region != null) {
+            batch.draw(region, getRenderX(), getRenderY(), width, height);
         }
     }
     // Interactable interface implementation
@@ -69,7 +92,7 @@ public class NPC extends Entity implements Interactable, Collidable {
     }
     @Override
     public boolean canInteract() {
-        return active && dialogues != null && dialogues.length > 0;
+        return isActive() && dialogues != null && dialogues.length > 0;
     }
     @Override
     public float getInteractionRange() {
@@ -117,6 +140,26 @@ public class NPC extends Entity implements Interactable, Collidable {
         currentDialogueIndex = 0;
         isInteracting = false;
     }
+    // Animation
+    /**
+     * Id of the AnimationLibrary clip to play (from the map's "animation" property)
+     */
+    public String getAnimationId() {
+        return animationId;
+    }
+    public void setAnimationId(String animationId) {
+        this.animationId = animationId;
+    }
+    public AnimationClip getClip() {
+        return animation.getClip();
+    }
+    public void setClip(AnimationClip clip) {
+        if (clip == null) {
+            animation.clear();
+        } else {
+            animation.play(clip);
+        }
+    }
     // Getters
     public String getName() {
         return name;
@@ -127,9 +170,11 @@ public class NPC extends Entity implements Interactable, Collidable {
     public void setInteracting(boolean interacting) {
         this.isInteracting = interacting;
     }
+    /**
+     * Drop the texture and clip references (they are shared; see Player.dispose)
+     */
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        texture = null;
+        animation.clear();
     }
 }
@@ -1,6 +1,5 @@
 package com.adventurequest.model.entities;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.adventurequest.model.interfaces.Collidable;
 /**
@@ -17,7 +16,9 @@ public class Obstacle extends Entity implements Collidable {
     // Obstacle-specific properties
     private boolean isSolid;
     private String obstacleType;
-    private Texture texture;
+    private TextureRegion texture;
+    // Shared sprite mask (null = collide as a rectangle)
+    private PixelMask pixelMask;
     /**
      * Constructor for Obstacle
      */
@@ -25,15 +26,8 @@ public class Obstacle extends Entity implements Collidable {
         super(id, x, y, width, height);
         this.obstacleType = obstacleType;
         this.isSolid = true; // By default, obstacles block movement
-        // Load obstacle texture based on type
-        try {
-            String texturePath = "sprites/" + obstacleType + ".png";
-            texture = new Texture(Gdx.files.internal(texturePath));
-            Gdx.app.log("Obstacle", "Loaded texture: " + texturePath);
-        } catch (Exception e) {
-            Gdx.app.log("Obstacle", "Could not load texture for " + obstacleType + ": " + e.getMessage());
-            texture = null;
-        }
+        // Sprite is assigned by SpriteLoader (none when running headless)
+        this.texture = null;
     }
     /**
      * Update obstacle state (usually nothing for static obstacles)
@@ -43,13 +37,17 @@ public class Obstacle extends Entity implements Collidable {
         // Static obstacles don't need updates
         // Can add animated obstacles here later
     }
+    @Override
+    public TextureRegion getRegion() {
+        return texture;
+    }
     /**
      * Render the obstacle
      */
     @Override
     public void render(SpriteBatch batch) {
         if (texture != null) {
-            batch.draw(texture, position.x, position.y, width, height);
+            batch.draw(texture, getRenderX(), getRenderY(), width, height);
         }
     }
     // Collidable interface implementation
@@ -61,6 +59,20 @@ public class Obstacle extends Entity implements Collidable {
     public void onCollision(Entity other) {
         // Obstacles are static; damage is handled in CollisionManager
     }
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+    @Override
+    public PixelMask getPixelMask() {
+        return pixelMask;
+    }
+    public void setRegion(TextureRegion texture) {
+        this.texture = texture;
+    }
+    public void setPixelMask(PixelMask pixelMask) {
+        this.pixelMask = pixelMask;
+    }
     // Getters and Setters
     public String getObstacleType() {
         return obstacleType;
@@ -68,9 +80,10 @@ public class Obstacle extends Entity implements Collidable {
     public void setSolid(boolean solid) {
         this.isSolid = solid;
     }
+    /**
+     * Drop the texture reference (it is shared; see Player.dispose)
+     */
     public void dispose() {
-        if (texture != null) {
-            texture.dispose();
-        }
+        texture = null;
     }
 }
@@ -0,0 +1,89 @@
+package com.adventurequest.model.entities;
+/**
+ * PixelMask - 1-bit solidity mask of an entity's sprite
+ *
+ * One bit per pixel at the entity's world size, rows packed into 64-bit
+ * words with row 0 at the bottom (world y-up). Two masks are tested by
+ * ANDing the overlapping part of each row 64 pixels at a time.
+ *
+ * Masks are shared between entities of the same type and size, so they
+ * must not be modified once built.
+ */
+public class PixelMask {
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+    /**
+     * Create an empty mask
+     * @param width Width in pixels
+     * @param height Height in pixels
+     */
+    public PixelMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+    /**
+     * Mark a pixel as solid
+     */
+    public void set(int x, int y) {
+        bits[y * wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+    }
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+    /**
+     * 64 pixels of a row starting at column x (pixels past the edge are 0)
+     */
+    private long rowBits(int y, int x) {
+        int w = x >>> 6;
+        int shift = x & 63;
+        int row = y * wordsPerRow;
+        long v = bits[row + w] >>> shift;
+        if (shift != 0 && w + 1 < wordsPerRow) {
+            v |= bits[row + w + 1] << (64 - shift);
+        }
+        return v;
+    }
+    /**
+     * Check if the solid pixels of two placed masks overlap.
+     * A null mask counts as a fully solid box of the given size.
+     */
+    public static boolean overlaps(PixelMask a, float ax, float ay, float aw, float ah,
+                                   PixelMask b, float bx, float by, float bw, float bh) {
+        int aWidth = a != null ? a.width : (int) Math.ceil(aw);
+        int aHeight = a != null ? a.height : (int) Math.ceil(ah);
+        int bWidth = b != null ? b.width : (int) Math.ceil(bw);
+        int bHeight = b != null ? b.height : (int) Math.ceil(bh);
+        // Offset of b in a's pixel space
+        int ox = Math.round(bx - ax);
+        int oy = Math.round(by - ay);
+        int x0 = Math.max(0, ox);
+        int x1 = Math.min(aWidth, ox + bWidth);
+        int y0 = Math.max(0, oy);
+        int y1 = Math.min(aHeight, oy + bHeight);
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x += 64) {
+                int n = x1 - x;
+                long keep = n >= 64 ? -1L : (1L << n) - 1;
+                long wa = a != null ? a.rowBits(y, x) : -1L;
+                long wb = b != null ? b.rowBits(y - oy, x - ox) : -1L;
+                if ((wa & wb & keep) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    public int getWidth() {
+        return width;
+    }
+    public int getHeight() {
+        return height;
+    }
+}
@@ -1,9 +1,14 @@
 package com.adventurequest.model.entities;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.adventurequest.model.animation.Animation;
+import com.adventurequest.model.animation.AnimationClip;
 import com.adventurequest.model.interfaces.Collidable;
 import com.adventurequest.model.interfaces.Updatable;
+import com.adventurequest.model.world.CollisionGrid;
+import com.adventurequest.model.world.DistanceField;
+import com.adventurequest.model.world.MovementResolver;
 /**
  * Player Entity
  *
@@ -16,16 +21,9 @@ public class Player extends Entity implements Collidable, Updatable {
     // Player-specific properties
     private float speed;
     private Direction currentDirection;
-    private Texture currentTexture;
-    // Directional textures
-    private Texture textureUp;
-    private Texture textureDown;
-    private Texture textureLeft;
-    private Texture textureRight;
-    // Jump textures
-    private Texture textureJumpStart;
-    private Texture textureJumpLoop;
-    private Texture textureFalling;
+    // Shared clip of each pose (indexed by Pose ordinal) and what is playing
+    private AnimationClip[] clips;
+    private final Animation animation = new Animation();
     // Jump mechanics
     private float velocityY;
     private boolean isJumping;
@@ -45,6 +43,8 @@ public class Player extends Entity implements Collidable, Updatable {
     private float mapMaxX = 10000; // Will be set properly
     private float mapMinY = 0;
     private float mapMaxY = 10000; // Will be set properly
+    // Sweeps movement through the map's collision tiles
+    private final MovementResolver mover = new MovementResolver();
     // Health
     private float maxHealth = 100f;
     private float health = 100f;
@@ -57,6 +57,12 @@ public class Player extends Entity implements Collidable, Updatable {
     public enum JumpState {
         GROUNDED, JUMP_START, JUMP_LOOP, FALLING
     }
+    /**
+     * Animation poses (one clip each)
+     */
+    public enum Pose {
+        UP, DOWN, LEFT, RIGHT, JUMP_START, JUMP_LOOP, FALLING
+    }
     /**
      * Direction enumeration for player movement
      */
@@ -78,21 +84,26 @@ public class Player extends Entity implements Collidable, Updatable {
         this.animationTimer = 0;
         this.spawnX = x;
         this.spawnY = y;
-        // Load directional player textures
-        try {
-            textureUp = new Texture(Gdx.files.internal("sprites/player_up.png"));
-            textureDown = new Texture(Gdx.files.internal("sprites/player_down.png"));
-            textureLeft = new Texture(Gdx.files.internal("sprites/player_left.png"));
-            textureRight = new Texture(Gdx.files.internal("sprites/player_right.png"));
-            // Load jump textures
-            textureJumpStart = new Texture(Gdx.files.internal("sprites/player_jump_start.png"));
-            textureJumpLoop = new Texture(Gdx.files.internal("sprites/player_jump_loop.png"));
-            textureFalling = new Texture(Gdx.files.internal("sprites/player_falling.png"));
-            currentTexture = textureDown; // Default facing down
-            Gdx.app.log("Player", "Player textures loaded successfully");
-        } catch (Exception e) {
-            Gdx.app.log("Player", "Could not load player textures: " + e.getMessage());
-            currentTexture = null;
+        // Clips are assigned by SpriteLoader (none when running headless)
+    }
+    /**
+     * Set the clip of each pose
+     * @param clips Indexed by Pose ordinal (null = no sprites)
+     */
+    public void setClips(AnimationClip[] clips) {
+        this.clips = clips;
+        animation.clear();
+        play(Pose.DOWN); // Default facing down
+    }
+    /**
+     * Clips from setClips (empty if none)
+     */
+    public AnimationClip[] getClips() {
+        return clips != null ? clips : new AnimationClip[0];
+    }
+    private void play(Pose pose) {
+        if (clips != null) {
+            animation.play(clips[pose.ordinal()]);
         }
     }
     /**
@@ -102,6 +113,7 @@ public class Player extends Entity implements Collidable, Updatable {
     @Override
     public void update(float deltaTime) {
         animationTimer += deltaTime;
+        animation.update(deltaTime);
         // Apply gravity and update vertical position
         if (!isGrounded) {
             velocityY += GRAVITY * deltaTime;
@@ -110,15 +122,16 @@ public class Player extends Entity implements Collidable, Updatable {
                 velocityY = MAX_FALL_SPEED;
             }
             // Update position
-            position.y += velocityY * deltaTime;
+            float newY = getY() + velocityY * deltaTime;
             // Check if landed
-            if (position.y <= groundY) {
-                position.y = groundY;
+            if (newY <= groundY) {
+                newY = groundY;
                 velocityY = 0;
                 isGrounded = true;
                 isJumping = false;
                 jumpState = JumpState.GROUNDED;
             }
+            setPosition(getX(), newY);
         }
         // Update jump animation state
         updateJumpState(deltaTime);
@@ -132,17 +145,17 @@ public class Player extends Entity implements Collidable, Updatable {
         } else if (isJumping) {
             if (animationTimer < JUMP_START_DURATION) {
                 jumpState = JumpState.JUMP_START;
-                currentTexture = textureJumpStart;
+                play(Pose.JUMP_START);
             } else if (velocityY > 0) {
                 jumpState = JumpState.JUMP_LOOP;
-                currentTexture = textureJumpLoop;
+                play(Pose.JUMP_LOOP);
             } else {
                 jumpState = JumpState.FALLING;
-                currentTexture = textureFalling;
+                play(Pose.FALLING);
             }
         } else if (velocityY < 0) {
             jumpState = JumpState.FALLING;
-            currentTexture = textureFalling;
+            play(Pose.FALLING);
         }
     }
     /**
@@ -155,7 +168,7 @@ public class Player extends Entity implements Collidable, Updatable {
             isJumping = true;
             animationTimer = 0;
             jumpState = JumpState.JUMP_START;
-            currentTexture = textureJumpStart;
+            play(Pose.JUMP_START);
             Gdx.app.log("Player", "Jump!");
         }
     }
@@ -166,60 +179,63 @@ public class Player extends Entity implements Collidable, Updatable {
      */
     public void moveInDirection(Direction direction, float deltaTime) {
         this.currentDirection = direction;
-        // Only update directional texture if grounded (not during jump)
+        // Only update directional pose if grounded (not during jump)
         if (isGrounded || jumpState == JumpState.GROUNDED) {
             switch (direction) {
                 case UP:
-                    currentTexture = textureUp;
+                    play(Pose.UP);
                     break;
                 case DOWN:
-                    currentTexture = textureDown;
+                    play(Pose.DOWN);
                     break;
                 case LEFT:
-                    currentTexture = textureLeft;
+                    play(Pose.LEFT);
                     break;
                 case RIGHT:
-                    currentTexture = textureRight;
+                    play(Pose.RIGHT);
                     break;
                 case NONE:
-                    // Keep current texture
+                    // Keep current pose
                     break;
             }
         }
         float distance = speed * deltaTime;
-        float oldX = position.x;
-        float oldY = position.y;
+        float dx = 0;
+        float dy = 0;
         switch (direction) {
             case UP:
-                move(0, distance);
+                dy = distance;
                 break;
             case DOWN:
-                move(0, -distance);
+                dy = -distance;
                 break;
             case LEFT:
-                move(-distance, 0);
+                dx = -distance;
                 break;
             case RIGHT:
-                move(distance, 0);
+                dx = distance;
                 break;
             case NONE:
                 break;
         }
+        // Stop at (and slide along) solid tiles instead of passing through them
+        mover.move(getX(), getY(), width, height, dx, dy);
+        float newX = mover.getResolvedX();
+        float newY = mover.getResolvedY();
         // Clamp position to map boundaries
-        if (position.x < mapMinX) {
-            position.x = mapMinX;
+        if (newX < mapMinX) {
+            newX = mapMinX;
         }
-        if (position.x + width > mapMaxX) {
-            position.x = mapMaxX - width;
+        if (newX + width > mapMaxX) {
+            newX = mapMaxX - width;
         }
-        if (position.y < mapMinY) {
-            position.y = mapMinY;
+        if (newY < mapMinY) {
+            newY = mapMinY;
         }
-        if (position.y + height > mapMaxY) {
-            position.y = mapMaxY - height;
+        if (newY + height > mapMaxY) {
+            newY = mapMaxY - height;
         }
-        // Update bounds
-        bounds.setPosition(position.x, position.y);
+        setPosition(newX, newY);
     }
     /**
      * Apply damage to the player.
@@ -236,12 +252,13 @@ public class Player extends Entity implements Collidable, Updatable {
      */
     public void revive() {
         this.health = maxHealth;
-        setPosition(spawnX, spawnY);
+        teleport(spawnX, spawnY);
+        pushOutOfWalls();
         this.velocityY = 0;
         this.isJumping = false;
         this.isGrounded = true;
         this.jumpState = JumpState.GROUNDED;
-        this.currentTexture = textureDown != null ? textureDown : currentTexture;
+        play(Pose.DOWN);
         Gdx.app.log("Player", "Revived at (" + spawnX + "," + spawnY + ")");
     }
     public void setSpawn(float x, float y) {
@@ -268,13 +285,34 @@ public class Player extends Entity implements Collidable, Updatable {
         this.mapMaxY = maxY;
         Gdx.app.log("Player", "Map boundaries set: (" + minX + "," + minY + ") to (" + maxX + "," + maxY + ")");
     }
+    /**
+     * Set the collision tiles movement is resolved against (null = none)
+     * @param distanceField Wall distances of the grid, used by pushOutOfWalls() (null = none)
+     */
+    public void setCollisionGrid(CollisionGrid grid, DistanceField distanceField, float tileWidth, float tileHeight) {
+        mover.setGrid(grid, distanceField, tileWidth, tileHeight);
+    }
+    /**
+     * Move out of any wall the player was placed in (spawn point, portal target)
+     */
+    public void pushOutOfWalls() {
+        if (mover.depenetrate(getX(), getY(), width, height)) {
+            teleport(mover.getResolvedX(), mover.getResolvedY());
+            Gdx.app.log("Player", "Pushed out of a wall to (" + getX() + "," + getY() + ")");
+        }
+    }
+    @Override
+    public TextureRegion getRegion() {
+        return animation.getFrame();
+    }
     /**
      * Render the player
      */
     @Override
     public void render(SpriteBatch batch) {
-        if (currentTexture != null) {
-            batch.draw(currentTexture, position.x, position.y, width, height);
+        TextureRegion frame = getRegion();
+        if (frame != null) {
+            batch.draw(frame, getRenderX(), getRenderY(), width, height);
         } else {
             // Placeholder rendering (colored square)
             // This will be handled by the renderer
@@ -301,14 +339,13 @@ public class Player extends Entity implements Collidable, Updatable {
     public Direction getCurrentDirection() {
         return currentDirection;
     }
+    /**
+     * Drop the clip references. Clips are shared between entities
+     * (AnimationLibrary), so they are given back with SpriteLoader.release
+     * rather than disposed here.
+     */
     public void dispose() {
-        if (textureUp != null) textureUp.dispose();
-        if (textureDown != null) textureDown.dispose();
-        if (textureLeft != null) textureLeft.dispose();
-        if (textureRight != null) textureRight.dispose();
-        if (textureJumpStart != null) textureJumpStart.dispose();
-        if (textureJumpLoop != null) textureJumpLoop.dispose();
-        if (textureFalling != null) textureFalling.dispose();
+        setClips(null);
     }
     // Additional getters
     public boolean isJumping() {
@@ -3,10 +3,12 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.adventurequest.model.interfaces.Updatable;
 /**
  * Portal Entity - Teleports player between maps
+ * (Updatable: the pulse animation runs every frame)
  */
-public class Portal extends Entity {
+public class Portal extends Entity implements Updatable {
     private String targetMap;
     private float targetX;
     private float targetY;
@@ -17,7 +19,6 @@ public class Portal extends Entity {
         this.targetMap = targetMap;
         this.targetX = targetX;
         this.targetY = targetY;
-        this.shapeRenderer = new ShapeRenderer();
         this.animationTimer = 0;
     }
     @Override
@@ -28,24 +29,38 @@ public class Portal extends Entity {
     public void render(SpriteBatch batch) {
         // End batch to draw shapes
         batch.end();
+        // Created on first draw so portals can exist without a GL context
+        if (shapeRenderer == null) {
+            shapeRenderer = new ShapeRenderer();
+        }
         shapeRenderer.setProjectionMatrix(batch.getProjectionMatrix());
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
         // Pulsing portal effect
         float alpha = 0.3f + (float)Math.sin(animationTimer) * 0.2f;
         shapeRenderer.setColor(0.2f, 0.6f, 1.0f, alpha);
-        shapeRenderer.rect(position.x, position.y, width, height);
+        shapeRenderer.rect(getRenderX(), getRenderY(), width, height);
         // Border
         shapeRenderer.end();
         shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
         shapeRenderer.setColor(0.4f, 0.8f, 1.0f, 0.8f);
-        shapeRenderer.rect(position.x, position.y, width, height);
+        shapeRenderer.rect(getRenderX(), getRenderY(), width, height);
         shapeRenderer.end();
         // Restart batch
         batch.begin();
     }
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
     public String getTargetMap() {
         return targetMap;
     }
+    /**
+     * Phase of the pulse animation
+     */
+    public float getPulse() {
+        return animationTimer;
+    }
     public float getTargetX() {
         return targetX;
     }
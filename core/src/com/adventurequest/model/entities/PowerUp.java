@@ -4,7 +4,7 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Rectangle;
 public class PowerUp {
     float x, y;
-    static final float SZ = 24f;
+    public static final float SZ = 24f;
     Rectangle bnd;
     Type typ;
     Texture tex;
@@ -37,6 +37,7 @@ public class PowerUp {
         return bnd.overlaps(pb);
     }
     public Type getType() { return typ; }
+    public Texture getTexture() { return tex; }
     public boolean checkCollision(Rectangle pb) { return chk(pb); }
     public float getX() { return x; }
     public float getY() { return y; }
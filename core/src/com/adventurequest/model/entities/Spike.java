@@ -1,30 +1,33 @@
 package com.adventurequest.model.entities;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.adventurequest.model.interfaces.Collidable;
 /**
  * Spike hazard: damages/kills player on touch.
  * Non-solid so the player can overlap and take damage.
  */
 public class Spike extends Entity implements Collidable {
-    private Texture texture;
+    private TextureRegion texture;
     public Spike(String id, float x, float y, float width, float height) {
         super(id, x, y, width, height);
-        try {
-            texture = new Texture(Gdx.files.internal("sprites/spike.png"));
-        } catch (Exception e) {
-            texture = null; // fallback: invisible but still harms
-        }
+        // Sprite is assigned by SpriteLoader; without one the spike is invisible but still harms
+        this.texture = null;
     }
     @Override
     public void update(float deltaTime) {
         // Static hazard
     }
     @Override
+    public TextureRegion getRegion() {
+        return texture;
+    }
+    public void setRegion(TextureRegion texture) {
+        this.texture = texture;
+    }
+    @Override
     public void render(SpriteBatch batch) {
         if (texture != null) {
-            batch.draw(texture, position.x, position.y, width, height);
+            batch.draw(texture, getRenderX(), getRenderY(), width, height);
         }
     }
     @Override
@@ -35,7 +38,14 @@ public class Spike extends Entity implements Collidable {
     public void onCollision(Entity other) {
         // Damage handled in CollisionManager
     }
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+    /**
+     * Drop the texture reference (it is shared; see Player.dispose)
+     */
     public void dispose() {
-        if (texture != null) texture.dispose();
+        texture = null;
     }
 }
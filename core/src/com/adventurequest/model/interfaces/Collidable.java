@@ -11,7 +11,8 @@ public interface Collidable {
      */
     boolean isSolid();
     /**
-     * Called when this entity collides with another
+     * Called once when this entity starts touching another
+     * (not again while the contact persists)
      * @param other The entity this collided with
      */
     void onCollision(Entity other);
@@ -2,6 +2,10 @@ package com.adventurequest.model.interfaces;
 /**
  * Interface for entities that need per-frame updates
  * Example: Animated entities, moving entities
+ *
+ * Only Updatable entities are ticked, and only while awake. An entity
+ * goes to sleep when keepAwake() returns false after an update, and is
+ * woken again by events such as a collision contact or an interaction.
  */
 public interface Updatable {
     /**
@@ -9,4 +13,11 @@ public interface Updatable {
      * @param deltaTime Time elapsed since last frame in seconds
      */
     void update(float deltaTime);
+    /**
+     * Check if this entity still needs ticks after its last update
+     * @return false to sleep until woken
+     */
+    default boolean keepAwake() {
+        return true;
+    }
 }
@@ -0,0 +1,86 @@
+package com.adventurequest.model.world;
+/**
+ * CollisionGrid - Tile collision layer packed one bit per tile
+ *
+ * Rows are stored as runs of 64-bit words, so a 60x40 map fits in
+ * 40 longs and range queries test up to 64 tiles per instruction.
+ * Tiles outside the grid count as solid.
+ */
+public class CollisionGrid {
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+    /**
+     * Create an empty (all walkable) grid
+     * @param width Width in tiles
+     * @param height Height in tiles
+     */
+    public CollisionGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+    /**
+     * Mark a tile as solid or walkable
+     */
+    public void set(int tileX, int tileY, boolean solid) {
+        int word = tileY * wordsPerRow + (tileX >>> 6);
+        long bit = 1L << (tileX & 63);
+        if (solid) {
+            bits[word] |= bit;
+        } else {
+            bits[word] &= ~bit;
+        }
+    }
+    /**
+     * Check a single tile (out of bounds = solid)
+     */
+    public boolean isSolid(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return true;
+        }
+        return (bits[tileY * wordsPerRow + (tileX >>> 6)] & (1L << (tileX & 63))) != 0;
+    }
+    /**
+     * Check if any tile in an inclusive tile rectangle is solid.
+     * Each row is tested a word at a time with edge masks.
+     */
+    public boolean anySolid(int tileX0, int tileY0, int tileX1, int tileY1) {
+        if (tileX1 < tileX0 || tileY1 < tileY0) {
+            return false;
+        }
+        if (tileX0 < 0 || tileY0 < 0 || tileX1 >= width || tileY1 >= height) {
+            return true;
+        }
+        int w0 = tileX0 >>> 6;
+        int w1 = tileX1 >>> 6;
+        long firstMask = -1L << (tileX0 & 63);
+        long lastMask = -1L >>> (63 - (tileX1 & 63));
+        for (int y = tileY0; y <= tileY1; y++) {
+            int row = y * wordsPerRow;
+            if (w0 == w1) {
+                if ((bits[row + w0] & firstMask & lastMask) != 0) {
+                    return true;
+                }
+                continue;
+            }
+            if ((bits[row + w0] & firstMask) != 0 || (bits[row + w1] & lastMask) != 0) {
+                return true;
+            }
+            for (int w = w0 + 1; w < w1; w++) {
+                if (bits[row + w] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    public int getWidth() {
+        return width;
+    }
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,170 @@
+package com.adventurequest.model.world;
+import com.badlogic.gdx.math.Vector2;
+/**
+ * DistanceField - Signed distance to the nearest wall for every tile
+ *
+ * Built once per map from the collision grid with an exact Euclidean
+ * distance transform (two separable 1D passes). Each tile stores, in
+ * whole pixels, the distance from its centre to the nearest wall face:
+ * positive in open tiles, negative inside solid ones. The area outside
+ * the map counts as solid, like in CollisionGrid.
+ *
+ * Point queries interpolate between tile centres, so clearance checks,
+ * push-out directions and wall distances are all O(1).
+ */
+public class DistanceField {
+    private static final float INF = 1e20f;
+    // Padded by one solid tile on every side
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+    private final short[] field;
+    /**
+     * Build the field for a collision grid
+     */
+    public DistanceField(CollisionGrid grid, float tileWidth, float tileHeight) {
+        this.width = grid.getWidth() + 2;
+        this.height = grid.getHeight() + 2;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.field = new short[width * height];
+        float[] toSolid = new float[width * height];
+        float[] toOpen = new float[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean solid = grid.isSolid(x - 1, y - 1);
+                toSolid[y * width + x] = solid ? 0 : INF;
+                toOpen[y * width + x] = solid ? INF : 0;
+            }
+        }
+        transform(toSolid);
+        transform(toOpen);
+        // Centre-to-centre distance minus half a tile ~ distance to the wall face
+        float half = Math.min(tileWidth, tileHeight) / 2;
+        for (int i = 0; i < field.length; i++) {
+            float d = toSolid[i] > 0
+                ? (float) Math.sqrt(toSolid[i]) - half
+                : -((float) Math.sqrt(toOpen[i]) - half);
+            field[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(d)));
+        }
+    }
+    /**
+     * Squared distance transform in place: rows with the tile width as
+     * spacing, then columns with the tile height
+     */
+    private void transform(float[] grid) {
+        int n = Math.max(width, height);
+        float[] f = new float[n];
+        float[] d = new float[n];
+        int[] v = new int[n];
+        float[] z = new float[n + 1];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                f[x] = grid[y * width + x];
+            }
+            transform1d(f, width, tileWidth * tileWidth, d, v, z);
+            for (int x = 0; x < width; x++) {
+                grid[y * width + x] = d[x];
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                f[y] = grid[y * width + x];
+            }
+            transform1d(f, height, tileHeight * tileHeight, d, v, z);
+            for (int y = 0; y < height; y++) {
+                grid[y * width + x] = d[y];
+            }
+        }
+    }
+    /**
+     * 1D squared distance transform (lower envelope of parabolas)
+     * @param spacingSq Squared distance between neighbouring samples
+     */
+    private static void transform1d(float[] f, int n, float spacingSq, float[] d, int[] v, float[] z) {
+        int k = 0;
+        v[0] = 0;
+        z[0] = -INF;
+        z[1] = INF;
+        for (int q = 1; q < n; q++) {
+            float s = intersect(f, spacingSq, v[k], q);
+            while (s <= z[k]) {
+                k--;
+                s = intersect(f, spacingSq, v[k], q);
+            }
+            k++;
+            v[k] = q;
+            z[k] = s;
+            z[k + 1] = INF;
+        }
+        k = 0;
+        for (int q = 0; q < n; q++) {
+            while (z[k + 1] < q) {
+                k++;
+            }
+            int p = v[k];
+            d[q] = spacingSq * (q - p) * (q - p) + f[p];
+        }
+    }
+    /**
+     * Position where the parabolas rooted at p and q intersect
+     */
+    private static float intersect(float[] f, float spacingSq, int p, int q) {
+        return ((f[q] + spacingSq * q * q) - (f[p] + spacingSq * p * p)) / (2 * spacingSq * (q - p));
+    }
+    /**
+     * Distance from a tile's centre to the nearest wall, in pixels (negative inside walls)
+     */
+    public float getWallDistance(int tileX, int tileY) {
+        int x = Math.max(0, Math.min(width - 1, tileX + 1));
+        int y = Math.max(0, Math.min(height - 1, tileY + 1));
+        return field[y * width + x];
+    }
+    /**
+     * Signed distance to the nearest wall at a pixel position,
+     * interpolated between tile centres
+     */
+    public float getDistance(float x, float y) {
+        float gx = x / tileWidth + 0.5f; // +1 padding, -0.5 to centres
+        float gy = y / tileHeight + 0.5f;
+        int x0 = (int) Math.floor(gx);
+        int y0 = (int) Math.floor(gy);
+        float fx = gx - x0;
+        float fy = gy - y0;
+        float d00 = sample(x0, y0);
+        float d10 = sample(x0 + 1, y0);
+        float d01 = sample(x0, y0 + 1);
+        float d11 = sample(x0 + 1, y0 + 1);
+        float bottom = d00 + (d10 - d00) * fx;
+        float top = d01 + (d11 - d01) * fx;
+        return bottom + (top - bottom) * fy;
+    }
+    /**
+     * Check if a circle of the given radius fits at a position without touching a wall
+     */
+    public boolean hasClearance(float x, float y, float radius) {
+        return getDistance(x, y) >= radius;
+    }
+    /**
+     * Direction that leads away from the nearest wall (the field's gradient)
+     * @param out Receives a unit vector, or zero where the field is flat
+     * @return out
+     */
+    public Vector2 getPushOutDirection(float x, float y, Vector2 out) {
+        float ex = tileWidth / 2;
+        float ey = tileHeight / 2;
+        float gx = getDistance(x + ex, y) - getDistance(x - ex, y);
+        float gy = getDistance(x, y + ey) - getDistance(x, y - ey);
+        float len = (float) Math.sqrt(gx * gx + gy * gy);
+        if (len < 1e-4f) {
+            return out.set(0, 0);
+        }
+        return out.set(gx / len, gy / len);
+    }
+    private float sample(int x, int y) {
+        x = Math.max(0, Math.min(width - 1, x));
+        y = Math.max(0, Math.min(height - 1, y));
+        return field[y * width + x];
+    }
+}
@@ -1,8 +1,11 @@
 package com.adventurequest.model.world;
 import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.adventurequest.loader.SpriteLoader;
 import com.adventurequest.model.entities.Entity;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 /**
  * GameMap - Represents a game map/level
  *
@@ -15,9 +18,16 @@ import java.util.List;
 public class GameMap {
     private String mapId;
     private TiledMap tiledMap;
+    // False when an AssetManager owns the TiledMap (shared, it disposes it)
+    private boolean ownsTiledMap = true;
     private List<Entity> mapEntities;
+    // Membership index for mapEntities (keeps addEntity O(1))
+    private Set<Entity> mapEntitySet;
     private List<Portal> portals;
-    private int[][] collisionLayer;
+    private CollisionGrid collisionGrid;
+    // Distance to the nearest wall per tile (null without a collision layer)
+    private DistanceField distanceField;
+    private StaticAabbTree staticTree;
     private int mapWidth;
     private int mapHeight;
     private int tileWidth;
@@ -29,6 +39,7 @@ public class GameMap {
         this.mapId = mapId;
         this.tiledMap = tiledMap;
         this.mapEntities = new ArrayList<>();
+        this.mapEntitySet = new HashSet<>();
         this.portals = new ArrayList<>();
         // Extract map dimensions from Tiled map
         // This will be properly implemented when we add the Tiled loader
@@ -39,13 +50,10 @@ public class GameMap {
      * Check if a tile position has collision
      */
     public boolean isCollision(int tileX, int tileY) {
-        if (collisionLayer == null) {
+        if (collisionGrid == null) {
             return false;
         }
-        if (tileX < 0 || tileY < 0 || tileX >= mapWidth || tileY >= mapHeight) {
-            return true; // Out of bounds = collision
-        }
-        return collisionLayer[tileY][tileX] == 1;
+        return collisionGrid.isSolid(tileX, tileY); // Out of bounds = collision
     }
     /**
      * Check if a pixel position has collision
@@ -55,6 +63,21 @@ public class GameMap {
         int tileY = (int) (y / tileHeight);
         return isCollision(tileX, tileY);
     }
+    /**
+     * Check if any solid tile lies under a pixel rectangle.
+     * Right and top edges are exclusive, so a box resting exactly on a tile
+     * boundary does not touch the next tile.
+     */
+    public boolean isAreaSolid(float x, float y, float width, float height) {
+        if (collisionGrid == null) {
+            return false;
+        }
+        int tileX0 = (int) Math.floor(x / tileWidth);
+        int tileY0 = (int) Math.floor(y / tileHeight);
+        int tileX1 = Math.max(tileX0, (int) Math.ceil((x + width) / tileWidth) - 1);
+        int tileY1 = Math.max(tileY0, (int) Math.ceil((y + height) / tileHeight) - 1);
+        return collisionGrid.anySolid(tileX0, tileY0, tileX1, tileY1);
+    }
     /**
      * Get portal at position (if any)
      */
@@ -70,7 +93,7 @@ public class GameMap {
      * Add an entity to this map
      */
     public void addEntity(Entity entity) {
-        if (!mapEntities.contains(entity)) {
+        if (mapEntitySet.add(entity)) {
             mapEntities.add(entity);
         }
     }
@@ -78,7 +101,29 @@ public class GameMap {
      * Remove an entity from this map
      */
     public void removeEntity(Entity entity) {
-        mapEntities.remove(entity);
+        if (mapEntitySet.remove(entity)) {
+            mapEntities.remove(entity);
+        }
+    }
+    /**
+     * Build the static collider tree from this map's static entities.
+     * Called once by the loader after all entities are added.
+     */
+    public void buildStaticTree() {
+        List<Entity> statics = new ArrayList<>();
+        for (Entity entity : mapEntities) {
+            if (entity.isStatic()) {
+                statics.add(entity);
+            }
+        }
+        this.staticTree = new StaticAabbTree(statics);
+    }
+    /**
+     * Compute the wall distance field.
+     * Called by the loader once the grid and tile size are set.
+     */
+    public void buildDistanceField() {
+        distanceField = collisionGrid != null ? new DistanceField(collisionGrid, tileWidth, tileHeight) : null;
     }
     /**
      * Add a portal to this map
@@ -96,17 +141,46 @@ public class GameMap {
     public TiledMap getTiledMap() {
         return tiledMap;
     }
+    public void setOwnsTiledMap(boolean ownsTiledMap) {
+        this.ownsTiledMap = ownsTiledMap;
+    }
+    /**
+     * Free what the map holds once nothing uses it (render thread): its
+     * entities' textures and, unless an AssetManager owns it, the TiledMap
+     * with its tilesets
+     * @param sprites Releases the entities' textures, or null (headless)
+     */
+    public void dispose(SpriteLoader sprites) {
+        if (sprites != null) {
+            for (int i = 0; i < mapEntities.size(); i++) {
+                sprites.release(mapEntities.get(i));
+            }
+        }
+        if (tiledMap != null && ownsTiledMap) {
+            tiledMap.dispose();
+        }
+        tiledMap = null;
+    }
     public List<Entity> getMapEntities() {
         return mapEntities;
     }
     public List<Portal> getPortals() {
         return portals;
     }
-    public void setCollisionLayer(int[][] collisionLayer) {
-        this.collisionLayer = collisionLayer;
-        if (collisionLayer != null && collisionLayer.length > 0) {
-            this.mapHeight = collisionLayer.length;
-            this.mapWidth = collisionLayer[0].length;
+    public StaticAabbTree getStaticTree() {
+        return staticTree;
+    }
+    public DistanceField getDistanceField() {
+        return distanceField;
+    }
+    public CollisionGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+    public void setCollisionGrid(CollisionGrid collisionGrid) {
+        this.collisionGrid = collisionGrid;
+        if (collisionGrid != null) {
+            this.mapHeight = collisionGrid.getHeight();
+            this.mapWidth = collisionGrid.getWidth();
         }
     }
     public int getMapWidth() {
@@ -121,6 +195,10 @@ public class GameMap {
     public int getTileHeight() {
         return tileHeight;
     }
+    public void setTileSize(int tileWidth, int tileHeight) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
     public void setMapDimensions(int width, int height) {
         this.mapWidth = width;
         this.mapHeight = height;
@@ -0,0 +1,224 @@
+package com.adventurequest.model.world;
+import com.badlogic.gdx.math.Vector2;
+/**
+ * MovementResolver - Swept box movement against the tile collision grid
+ *
+ * Walks the leading edges of a moving box through the grid one tile
+ * boundary at a time (DDA), so a fast mover or a long frame can't skip
+ * over a one-tile wall. On contact the box stops flush with the wall and
+ * the rest of the motion slides along it.
+ *
+ * Tiles the box already overlaps when the move starts are ignored, so an
+ * entity spawned inside a wall can still walk out; depenetrate() moves it
+ * out right away by following the map's DistanceField. Results are kept
+ * in fields; one resolver per mover, nothing is allocated per call.
+ */
+public class MovementResolver {
+    // Remaining motion is re-swept after each contact (one per axis + final leg)
+    private static final int MAX_ITERATIONS = 3;
+    // Half-tile steps tried by depenetrate() before giving up
+    private static final int MAX_PUSH_STEPS = 32;
+    private CollisionGrid grid;
+    private DistanceField distanceField;
+    private float tileWidth = 32f;
+    private float tileHeight = 32f;
+    // Result of the last sweep()
+    private float hitTime;
+    private int normalX;
+    private int normalY;
+    private float sweepX;
+    private float sweepY;
+    // Result of the last move()
+    private float resolvedX;
+    private float resolvedY;
+    private boolean blocked;
+    private final Vector2 push = new Vector2();
+    /**
+     * Set the grid to collide against (null = nothing blocks)
+     * @param distanceField Wall distances of the same grid, or null (no depenetration)
+     */
+    public void setGrid(CollisionGrid grid, DistanceField distanceField, float tileWidth, float tileHeight) {
+        this.grid = grid;
+        this.distanceField = distanceField;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+    /**
+     * Sweep a box by (dx, dy) and stop at the first solid tile it enters.
+     * Afterwards {@link #getHitTime()} is in [0, 1] (1 = no contact),
+     * the normal points away from the wall, and the box position at the
+     * contact is available from {@link #getSweepX()} / {@link #getSweepY()}.
+     * @return true if the box hit a wall
+     */
+    public boolean sweep(float x, float y, float w, float h, float dx, float dy) {
+        hitTime = 1f;
+        normalX = 0;
+        normalY = 0;
+        sweepX = x + dx;
+        sweepY = y + dy;
+        if (grid == null || (dx == 0 && dy == 0)) {
+            return false;
+        }
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        // Tile column/row currently holding the leading edge
+        int leadCol = stepX > 0 ? lastCell(x + w, tileWidth) : (int) Math.floor(x / tileWidth);
+        int leadRow = stepY > 0 ? lastCell(y + h, tileHeight) : (int) Math.floor(y / tileHeight);
+        // Time at which the leading edge crosses into the next column/row
+        float nextX = Float.MAX_VALUE;
+        float nextY = Float.MAX_VALUE;
+        float deltaX = 0f;
+        float deltaY = 0f;
+        if (stepX != 0) {
+            float boundary = stepX > 0 ? (leadCol + 1) * tileWidth : leadCol * tileWidth;
+            nextX = (boundary - (stepX > 0 ? x + w : x)) / dx;
+            deltaX = tileWidth / Math.abs(dx);
+        }
+        if (stepY != 0) {
+            float boundary = stepY > 0 ? (leadRow + 1) * tileHeight : leadRow * tileHeight;
+            nextY = (boundary - (stepY > 0 ? y + h : y)) / dy;
+            deltaY = tileHeight / Math.abs(dy);
+        }
+        while (true) {
+            boolean crossX = nextX <= nextY;
+            float t = crossX ? nextX : nextY;
+            if (t > 1f) {
+                return false;
+            }
+            if (crossX) {
+                leadCol += stepX;
+                // Rows covered at time t, counting a row the leading Y edge has just entered
+                float by = y + dy * t;
+                int row0 = stepY < 0 ? Math.min(leadRow, (int) Math.floor(by / tileHeight)) : (int) Math.floor(by / tileHeight);
+                int row1 = stepY > 0 ? Math.max(leadRow, lastCell(by + h, tileHeight)) : lastCell(by + h, tileHeight);
+                if (grid.anySolid(leadCol, row0, leadCol, row1)) {
+                    hit(t, -stepX, 0, x, y, w, h, dx, dy, leadCol);
+                    return true;
+                }
+                nextX += deltaX;
+            } else {
+                leadRow += stepY;
+                float bx = x + dx * t;
+                int col0 = stepX < 0 ? Math.min(leadCol, (int) Math.floor(bx / tileWidth)) : (int) Math.floor(bx / tileWidth);
+                int col1 = stepX > 0 ? Math.max(leadCol, lastCell(bx + w, tileWidth)) : lastCell(bx + w, tileWidth);
+                if (grid.anySolid(col0, leadRow, col1, leadRow)) {
+                    hit(t, 0, -stepY, x, y, w, h, dx, dy, leadRow);
+                    return true;
+                }
+                nextY += deltaY;
+            }
+        }
+    }
+    /**
+     * Move a box by (dx, dy), sliding along any walls it touches.
+     * The final position is available from {@link #getResolvedX()} / {@link #getResolvedY()}.
+     * @return true if any part of the motion was blocked
+     */
+    public boolean move(float x, float y, float w, float h, float dx, float dy) {
+        blocked = false;
+        for (int i = 0; i < MAX_ITERATIONS && (dx != 0 || dy != 0); i++) {
+            if (!sweep(x, y, w, h, dx, dy)) {
+                x = sweepX;
+                y = sweepY;
+                break;
+            }
+            blocked = true;
+            float remaining = 1f - hitTime;
+            x = sweepX;
+            y = sweepY;
+            // Drop the component into the wall, keep sliding along it
+            dx = normalX != 0 ? 0 : dx * remaining;
+            dy = normalY != 0 ? 0 : dy * remaining;
+        }
+        resolvedX = x;
+        resolvedY = y;
+        return blocked;
+    }
+    /**
+     * Push a box that overlaps solid tiles out of them, half a tile at a
+     * time along the distance field's gradient (away from the nearest wall).
+     * The new position is available from {@link #getResolvedX()} / {@link #getResolvedY()};
+     * a box that is already clear, or can't be freed, keeps its position.
+     * @return true if the box was moved
+     */
+    public boolean depenetrate(float x, float y, float w, float h) {
+        resolvedX = x;
+        resolvedY = y;
+        if (grid == null || distanceField == null || !overlapsSolid(x, y, w, h)) {
+            return false;
+        }
+        float step = Math.min(tileWidth, tileHeight) / 2;
+        for (int i = 0; i < MAX_PUSH_STEPS; i++) {
+            distanceField.getPushOutDirection(x + w / 2, y + h / 2, push);
+            if (push.isZero()) {
+                return false;
+            }
+            x += push.x * step;
+            y += push.y * step;
+            if (!overlapsSolid(x, y, w, h)) {
+                resolvedX = x;
+                resolvedY = y;
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Check if a box covers any solid tile (right and top edges exclusive)
+     */
+    private boolean overlapsSolid(float x, float y, float w, float h) {
+        int col0 = (int) Math.floor(x / tileWidth);
+        int row0 = (int) Math.floor(y / tileHeight);
+        return grid.anySolid(col0, row0, Math.max(col0, lastCell(x + w, tileWidth)), Math.max(row0, lastCell(y + h, tileHeight)));
+    }
+    /**
+     * Record a contact; the box is placed flush against the blocking tile edge
+     */
+    private void hit(float t, int nx, int ny, float x, float y, float w, float h, float dx, float dy, int cell) {
+        hitTime = t;
+        normalX = nx;
+        normalY = ny;
+        sweepX = x + dx * t;
+        sweepY = y + dy * t;
+        if (nx < 0) {
+            sweepX = cell * tileWidth - w;
+        } else if (nx > 0) {
+            sweepX = (cell + 1) * tileWidth;
+        }
+        if (ny < 0) {
+            sweepY = cell * tileHeight - h;
+        } else if (ny > 0) {
+            sweepY = (cell + 1) * tileHeight;
+        }
+    }
+    /**
+     * Last cell touched by an exclusive max edge
+     */
+    private static int lastCell(float edge, float size) {
+        return (int) Math.ceil(edge / size) - 1;
+    }
+    public float getHitTime() {
+        return hitTime;
+    }
+    public int getNormalX() {
+        return normalX;
+    }
+    public int getNormalY() {
+        return normalY;
+    }
+    public float getSweepX() {
+        return sweepX;
+    }
+    public float getSweepY() {
+        return sweepY;
+    }
+    public float getResolvedX() {
+        return resolvedX;
+    }
+    public float getResolvedY() {
+        return resolvedY;
+    }
+    public boolean isBlocked() {
+        return blocked;
+    }
+}
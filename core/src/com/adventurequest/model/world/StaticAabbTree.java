@@ -0,0 +1,192 @@
+package com.adventurequest.model.world;
+import com.badlogic.gdx.math.Rectangle;
+import com.adventurequest.model.entities.Entity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+/**
+ * StaticAabbTree - Bounding volume tree over colliders that never move
+ *
+ * Built once when a GameMap is loaded. Nodes are stored in flat arrays
+ * (no per-node objects) and split on the median of the longest axis,
+ * so a query only descends into boxes that touch the query rectangle.
+ *
+ * Static entities must not move after the tree is built.
+ */
+public class StaticAabbTree {
+    private static final int LEAF_SIZE = 4;
+    private final Entity[] items;
+    private final Set<Entity> members;
+    // Union of the collision categories of all items
+    private final int categories;
+    // Node arrays
+    private float[] minX;
+    private float[] minY;
+    private float[] maxX;
+    private float[] maxY;
+    private int[] left;
+    private int[] right;
+    private int[] start;
+    private int[] count;
+    private int nodeCount;
+    /**
+     * Reusable query state (stack + results), one per caller
+     */
+    public static class Query {
+        private int[] stack = new int[32];
+        private Entity[] results = new Entity[16];
+        private int size;
+        public int size() {
+            return size;
+        }
+        public Entity get(int i) {
+            return results[i];
+        }
+        private void add(Entity e) {
+            if (size == results.length) {
+                results = Arrays.copyOf(results, size * 2);
+            }
+            results[size++] = e;
+        }
+    }
+    /**
+     * Build the tree from a list of static entities
+     */
+    public StaticAabbTree(List<Entity> statics) {
+        this.items = statics.toArray(new Entity[0]);
+        this.members = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(members, items);
+        int union = 0;
+        for (Entity e : items) {
+            union |= e.getCollisionCategory();
+        }
+        this.categories = union;
+        int capacity = Math.max(1, 2 * items.length / LEAF_SIZE + 2);
+        minX = new float[capacity];
+        minY = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        start = new int[capacity];
+        count = new int[capacity];
+        if (items.length > 0) {
+            build(0, items.length);
+        }
+    }
+    /**
+     * Build a subtree over items[from, to)
+     * @return node index
+     */
+    private int build(int from, int to) {
+        int node = allocNode();
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            Rectangle b = items[i].getBounds();
+            x0 = Math.min(x0, b.x);
+            y0 = Math.min(y0, b.y);
+            x1 = Math.max(x1, b.x + b.width);
+            y1 = Math.max(y1, b.y + b.height);
+        }
+        minX[node] = x0;
+        minY[node] = y0;
+        maxX[node] = x1;
+        maxY[node] = y1;
+        if (to - from <= LEAF_SIZE) {
+            left[node] = -1;
+            right[node] = -1;
+            start[node] = from;
+            count[node] = to - from;
+            return node;
+        }
+        // Split on the median centre along the longest axis
+        final boolean splitX = (x1 - x0) >= (y1 - y0);
+        Arrays.sort(items, from, to, (a, b) -> Float.compare(centre(a, splitX), centre(b, splitX)));
+        int mid = (from + to) >>> 1;
+        int l = build(from, mid);
+        int r = build(mid, to);
+        left[node] = l;
+        right[node] = r;
+        count[node] = 0;
+        return node;
+    }
+    private static float centre(Entity e, boolean onX) {
+        Rectangle b = e.getBounds();
+        return onX ? b.x + b.width / 2 : b.y + b.height / 2;
+    }
+    private int allocNode() {
+        if (nodeCount == minX.length) {
+            int size = nodeCount * 2;
+            minX = Arrays.copyOf(minX, size);
+            minY = Arrays.copyOf(minY, size);
+            maxX = Arrays.copyOf(maxX, size);
+            maxY = Arrays.copyOf(maxY, size);
+            left = Arrays.copyOf(left, size);
+            right = Arrays.copyOf(right, size);
+            start = Arrays.copyOf(start, size);
+            count = Arrays.copyOf(count, size);
+        }
+        return nodeCount++;
+    }
+    /**
+     * Collect every static entity whose box touches the given bounds.
+     * Results are candidates; callers still run the exact overlap test.
+     * @return number of results in {@code out}
+     */
+    public int query(Rectangle bounds, Query out) {
+        return query(bounds.x, bounds.y, bounds.width, bounds.height, out);
+    }
+    /**
+     * Same as {@link #query(Rectangle, Query)} for a box given by position and size
+     */
+    public int query(float x, float y, float width, float height, Query out) {
+        out.size = 0;
+        if (nodeCount == 0) {
+            return 0;
+        }
+        float qx0 = x;
+        float qy0 = y;
+        float qx1 = x + width;
+        float qy1 = y + height;
+        int[] stack = out.stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (maxX[node] < qx0 || minX[node] > qx1 || maxY[node] < qy0 || minY[node] > qy1) {
+                continue;
+            }
+            if (left[node] < 0) {
+                for (int i = start[node], end = start[node] + count[node]; i < end; i++) {
+                    out.add(items[i]);
+                }
+                continue;
+            }
+            if (top + 2 > stack.length) {
+                stack = out.stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = left[node];
+            stack[top++] = right[node];
+        }
+        return out.size;
+    }
+    /**
+     * Check if an entity is one of this tree's static colliders
+     */
+    public boolean contains(Entity entity) {
+        return members.contains(entity);
+    }
+    public int size() {
+        return items.length;
+    }
+    public int getCategories() {
+        return categories;
+    }
+    public List<Entity> getItems() {
+        return new ArrayList<>(Arrays.asList(items));
+    }
+}
@@ -0,0 +1,88 @@
+package com.adventurequest.view;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+/**
+ * LoadingScreen - Progress bar shown while the AssetManager loads
+ *
+ * - Files are read and decoded on the AssetManager's loader thread
+ * - Each frame gives the AssetManager a time budget on the render thread
+ *   for the GL uploads (textures, tilesets); whatever doesn't fit waits
+ *   for the next frame, so the window keeps redrawing during a cold start
+ */
+public class LoadingScreen {
+    // Render thread time per frame for the AssetManager (ms)
+    private static final int DEFAULT_BUDGET_MILLIS = 8;
+    private final AssetManager assets;
+    private final ShapeRenderer shapeRenderer;
+    private final BitmapFont font;
+    private final GlyphLayout layout = new GlyphLayout();
+    private int budgetMillis = DEFAULT_BUDGET_MILLIS;
+    private long startTime;
+    private boolean done;
+    public LoadingScreen(AssetManager assets) {
+        this.assets = assets;
+        this.shapeRenderer = new ShapeRenderer();
+        this.font = new BitmapFont();
+        this.font.getData().setScale(2.0f);
+    }
+    /**
+     * Let the AssetManager work for this frame's budget
+     * @return true once every queued asset is loaded
+     */
+    public boolean update() {
+        if (done) {
+            return true;
+        }
+        if (startTime == 0) {
+            startTime = System.nanoTime();
+        }
+        done = assets.update(budgetMillis);
+        if (done) {
+            Gdx.app.log("LoadingScreen", "Loaded " + assets.getLoadedAssets() + " assets in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+        }
+        return done;
+    }
+    /**
+     * Draw the progress bar
+     */
+    public void render(SpriteBatch batch) {
+        int screenWidth = Gdx.graphics.getWidth();
+        int screenHeight = Gdx.graphics.getHeight();
+        float progress = assets.getProgress();
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        float barWidth = screenWidth * 0.6f;
+        float barHeight = 24;
+        float barX = (screenWidth - barWidth) / 2f;
+        float barY = screenHeight / 2f - barHeight;
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.2f, 0.2f, 0.3f, 1);
+        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        shapeRenderer.setColor(Color.GOLD);
+        shapeRenderer.rect(barX, barY, barWidth * progress, barHeight);
+        shapeRenderer.end();
+        batch.begin();
+        font.setColor(Color.WHITE);
+        String text = "Loading... " + (int) (progress * 100) + "%";
+        layout.setText(font, text);
+        font.draw(batch, text, (screenWidth - layout.width) / 2f, barY + barHeight + 50);
+        batch.end();
+    }
+    /**
+     * Render thread time given to the AssetManager each frame
+     */
+    public void setBudgetMillis(int budgetMillis) {
+        this.budgetMillis = Math.max(1, budgetMillis);
+    }
+    public void dispose() {
+        shapeRenderer.dispose();
+        font.dispose();
+    }
+}
@@ -1,15 +1,24 @@
 package com.adventurequest.view;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.adventurequest.model.SimulationLod;
 import com.adventurequest.model.world.GameMap;
 /**
  * MapRenderer - Renders Tiled maps
+ *
+ * The camera always shows SimulationLod.VIEW_WIDTH x VIEW_HEIGHT world
+ * units, the view the simulation LOD keeps awake. A FitViewport scales
+ * that view to the window without distorting it; the rest of the window
+ * is left black (letterbox).
  */
 public class MapRenderer {
     private OrthogonalTiledMapRenderer tiledRenderer;
     private OrthographicCamera camera;
+    private FitViewport viewport;
     // Smooth camera following
     private float cameraLerpSpeed = 5.0f;
     private float targetX;
@@ -22,8 +31,11 @@ public class MapRenderer {
     float shakeDur = 0.15f;
     public MapRenderer() {
         camera = new OrthographicCamera();
-        camera.setToOrtho(false, 800, 600);
+        camera.setToOrtho(false, SimulationLod.VIEW_WIDTH, SimulationLod.VIEW_HEIGHT);
         camera.update();
+        viewport = new FitViewport(SimulationLod.VIEW_WIDTH, SimulationLod.VIEW_HEIGHT, camera);
+        // Created after the first resize() (once the assets are loaded): fit the current window
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         targetX = camera.position.x;
         targetY = camera.position.y;
     }
@@ -83,12 +95,25 @@ public class MapRenderer {
         camera.update();
     }
     /**
-     * Resize camera viewport
+     * Window resized: fit the logical view into the window, keeping its
+     * aspect ratio (the camera keeps following the player)
      */
     public void resize(int width, int height) {
-        camera.viewportWidth = width;
-        camera.viewportHeight = height;
-        camera.update();
+        viewport.update(width, height, false);
+        // update() applies the letterbox; screens drawn outside the world pass use the whole window
+        resetViewport();
+    }
+    /**
+     * Draw into the letterboxed world area (call before the map and entities)
+     */
+    public void applyViewport() {
+        viewport.apply();
+    }
+    /**
+     * Go back to the whole window (HUD, menus)
+     */
+    public void resetViewport() {
+        Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
     }
     /**
      * Get the camera
@@ -21,11 +21,19 @@ public class MenuScreen {
     private String[] menuOptions;
     private boolean hasSaveFile;
     private Texture[] bgTextures;
+    // Backgrounds loaded by this screen (not shared through the AssetManager)
+    private boolean ownsBackgrounds;
     private int currentBgIndex;
     private final Color tint = new Color(0, 0, 0, 0.25f);
     private Texture px;
     private final GlyphLayout gl = new GlyphLayout();
     public MenuScreen(boolean hasSaveFile) {
+        this(hasSaveFile, null);
+    }
+    /**
+     * @param backgrounds Preloaded backgrounds (see AssetManifest), or null to load them here
+     */
+    public MenuScreen(boolean hasSaveFile, Texture[] backgrounds) {
         this.currentState = MenuState.MAIN_MENU;
         this.font = new BitmapFont();
         this.titleFont = new BitmapFont();
@@ -37,7 +45,13 @@ public class MenuScreen {
         font.getData().setScale(2.0f);
         titleFont.getData().setScale(4.0f);
         px = makePixel();
-        loadBackgrounds();
+        if (backgrounds != null) {
+            bgTextures = backgrounds;
+            currentBgIndex = (int)(Math.random() * backgrounds.length);
+        } else {
+            loadBackgrounds();
+            ownsBackgrounds = true;
+        }
     }
 
     private Texture makePixel() {
@@ -171,9 +185,11 @@ public class MenuScreen {
         if (px != null) {
             px.dispose();
         }
-        for (Texture bg : bgTextures) {
-            if (bg != null) {
-                bg.dispose();
+        if (ownsBackgrounds) {
+            for (Texture bg : bgTextures) {
+                if (bg != null) {
+                    bg.dispose();
+                }
             }
         }
     }
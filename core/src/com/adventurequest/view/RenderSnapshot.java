@@ -0,0 +1,168 @@
+package com.adventurequest.view;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.adventurequest.model.GameState;
+import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.entities.EntityStore;
+import com.adventurequest.model.entities.Player;
+import com.adventurequest.model.entities.Portal;
+import com.adventurequest.model.entities.PowerUp;
+import com.adventurequest.model.world.GameMap;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * RenderSnapshot - Everything the Renderer needs to draw one simulation tick
+ *
+ * Captured by the simulation thread at the end of a tick and handed to
+ * the render thread through a TripleBuffer, so drawing never reads the
+ * live GameState. Arrays are reused between captures; a snapshot is only
+ * ever written by the producer and read by the consumer while it owns it.
+ *
+ * Holds:
+ * - active entities: positions at the start and end of the tick, size,
+ *   sprite region and draw kind
+ * - power-ups
+ * - HUD values (player position, speed, health)
+ */
+public class RenderSnapshot {
+    // Draw kinds
+    public static final byte SPRITE = 0;
+    public static final byte PORTAL = 1;
+    // Capture info
+    long tick;
+    long capturedAt;
+    float step;
+    GameMap map;
+    // Entities
+    int count;
+    float[] prevX = new float[64];
+    float[] prevY = new float[64];
+    float[] x = new float[64];
+    float[] y = new float[64];
+    float[] width = new float[64];
+    float[] height = new float[64];
+    TextureRegion[] regions = new TextureRegion[64];
+    byte[] kinds = new byte[64];
+    float[] pulse = new float[64];
+    // Index of the player in the entity arrays (-1 = none)
+    int playerIndex = -1;
+    // Power-ups
+    int powerUpCount;
+    float[] powerUpX = new float[8];
+    float[] powerUpY = new float[8];
+    PowerUp.Type[] powerUpTypes = new PowerUp.Type[8];
+    Texture[] powerUpTextures = new Texture[8];
+    // HUD
+    int entityCount;
+    float playerX;
+    float playerY;
+    float playerSpeed;
+    float playerHealth;
+    float playerMaxHealth;
+    /**
+     * Copy the drawable state of a game at the end of a tick
+     * @param step Length of a tick in seconds
+     * @param tick Number of the tick just run
+     */
+    public void capture(GameState gameState, float step, long tick) {
+        this.tick = tick;
+        this.step = step;
+        this.map = gameState.getCurrentMap();
+        EntityStore store = gameState.getStore();
+        Player player = gameState.getPlayer();
+        ensureEntityCapacity(store.size());
+        count = 0;
+        playerIndex = -1;
+        for (int i = 0; i < store.size(); i++) {
+            if (!store.isActive(i)) continue;
+            Entity entity = store.get(i);
+            int k = count++;
+            prevX[k] = store.getPrevX(i);
+            prevY[k] = store.getPrevY(i);
+            x[k] = store.getX(i);
+            y[k] = store.getY(i);
+            width[k] = store.getWidth(i);
+            height[k] = store.getHeight(i);
+            regions[k] = entity.getRegion();
+            if (entity instanceof Portal) {
+                kinds[k] = PORTAL;
+                pulse[k] = ((Portal) entity).getPulse();
+            } else {
+                kinds[k] = SPRITE;
+            }
+            if (entity == player) {
+                playerIndex = k;
+            }
+        }
+        // Drop sprite references past the end so old ones aren't kept alive
+        Arrays.fill(regions, count, regions.length, null);
+        List<PowerUp> powerUps = gameState.getPowerUps();
+        ensurePowerUpCapacity(powerUps.size());
+        powerUpCount = 0;
+        for (int i = 0; i < powerUps.size(); i++) {
+            PowerUp powerUp = powerUps.get(i);
+            if (powerUp.isCollected()) continue;
+            int k = powerUpCount++;
+            powerUpX[k] = powerUp.getX();
+            powerUpY[k] = powerUp.getY();
+            powerUpTypes[k] = powerUp.getType();
+            powerUpTextures[k] = powerUp.getTexture();
+        }
+        entityCount = store.size();
+        if (player != null) {
+            playerX = player.getX();
+            playerY = player.getY();
+            playerSpeed = player.getSpeed();
+            playerHealth = player.getHealth();
+            playerMaxHealth = player.getMaxHealth();
+        }
+        capturedAt = System.nanoTime();
+    }
+    private void ensureEntityCapacity(int n) {
+        if (n <= x.length) {
+            return;
+        }
+        int cap = Math.max(n, x.length * 2);
+        prevX = Arrays.copyOf(prevX, cap);
+        prevY = Arrays.copyOf(prevY, cap);
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        width = Arrays.copyOf(width, cap);
+        height = Arrays.copyOf(height, cap);
+        regions = Arrays.copyOf(regions, cap);
+        kinds = Arrays.copyOf(kinds, cap);
+        pulse = Arrays.copyOf(pulse, cap);
+    }
+    private void ensurePowerUpCapacity(int n) {
+        if (n <= powerUpX.length) {
+            return;
+        }
+        int cap = Math.max(n, powerUpX.length * 2);
+        powerUpX = Arrays.copyOf(powerUpX, cap);
+        powerUpY = Arrays.copyOf(powerUpY, cap);
+        powerUpTypes = Arrays.copyOf(powerUpTypes, cap);
+        powerUpTextures = Arrays.copyOf(powerUpTextures, cap);
+    }
+    /**
+     * How far the render clock is past this tick, as a fraction of a tick (0..1)
+     */
+    public float getAlpha(long now) {
+        if (step <= 0) {
+            return 1f;
+        }
+        float alpha = (now - capturedAt) / (step * 1e9f);
+        return Math.max(0f, Math.min(1f, alpha));
+    }
+    public long getTick() {
+        return tick;
+    }
+    public GameMap getMap() {
+        return map;
+    }
+    public int getCount() {
+        return count;
+    }
+    public boolean hasPlayer() {
+        return playerIndex >= 0;
+    }
+}
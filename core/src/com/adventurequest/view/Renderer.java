@@ -1,19 +1,25 @@
 package com.adventurequest.view;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.adventurequest.effects.ParticleSystem;
+import com.adventurequest.loader.AssetManifest;
 import com.adventurequest.model.GameState;
 import com.adventurequest.model.entities.Entity;
+import com.adventurequest.model.entities.EntityStore;
 import com.adventurequest.model.entities.Player;
 import com.adventurequest.model.entities.NPC;
 import com.adventurequest.model.entities.Obstacle;
 import com.adventurequest.model.entities.Chest;
 import com.adventurequest.model.entities.Portal;
+import com.adventurequest.model.entities.PowerUp;
+import com.adventurequest.model.world.GameMap;
 /**
  * Renderer - Main rendering class (View in MVC)
  *
@@ -39,14 +45,28 @@ public class Renderer {
     // Sound effects
     private Sound damageSound;
     private Sound healSound;
+    // Sounds loaded by this renderer (not shared through the AssetManager)
+    private boolean ownsSounds;
     // Power-up textures
     private Texture powerupHealthTexture;
     private Texture powerupDamageTexture;
     private Texture powerupShieldTexture;
+    private static final float POWER_UP_SIZE = 24f;
+    private float powerUpRotation = 0f;
+    // Thread that owns GL and the effect state; effects requested from
+    // other threads (the simulation thread) are posted to it
+    private final Thread renderThread;
     /**
      * Constructor
      */
     public Renderer(SpriteBatch batch) {
+        this(batch, null);
+    }
+    /**
+     * Constructor
+     * @param assets Preloaded sounds and textures (see AssetManifest), or null to load them here
+     */
+    public Renderer(SpriteBatch batch, AssetManager assets) {
         this.batch = batch;
         this.shapeRenderer = new ShapeRenderer();
         this.mapRenderer = new MapRenderer();
@@ -56,8 +76,18 @@ public class Renderer {
         this.font.setColor(Color.WHITE);
         this.screenWidth = 800;
         this.screenHeight = 600;
-        // Load sound effects
-        loadSounds();
+        this.renderThread = Thread.currentThread();
+        if (assets != null) {
+            damageSound = AssetManifest.get(assets, AssetManifest.DAMAGE_SOUND, Sound.class);
+            healSound = AssetManifest.get(assets, AssetManifest.HEAL_SOUND, Sound.class);
+            powerupHealthTexture = AssetManifest.get(assets, AssetManifest.POWERUP_HEALTH, Texture.class);
+            powerupDamageTexture = AssetManifest.get(assets, AssetManifest.POWERUP_DAMAGE, Texture.class);
+            powerupShieldTexture = AssetManifest.get(assets, AssetManifest.POWERUP_SHIELD, Texture.class);
+        } else {
+            // Load sound effects
+            loadSounds();
+            ownsSounds = true;
+        }
     }
     /**
      * Load sound effects and textures
@@ -93,35 +123,22 @@ public class Renderer {
     }
     /**
      * Render the game
+     * @param deltaTime Real time since the last frame (visual effects only;
+     *                  entities are drawn interpolated between simulation ticks)
      */
-    public void render(GameState gameState) {
+    public void render(GameState gameState, float deltaTime) {
         if (gameState == null) {
             return;
         }
-        // Update visual effect timers
-        float deltaTime = 0.016f;
-        if (damageFlashTimer > 0) damageFlashTimer -= deltaTime;
-        if (healFlashTimer > 0) healFlashTimer -= deltaTime;
-        if (screenShakeTimer > 0) {
-            screenShakeTimer -= deltaTime;
-            screenShakeIntensity = screenShakeTimer * 10f; // Decay intensity
-        }
-        // Render map first
-        if (gameState.getCurrentMap() != null) {
-            // Update camera to follow player
-            if (gameState.getPlayer() != null) {
-                float playerX = gameState.getPlayer().getX() + gameState.getPlayer().getWidth() / 2;
-                float playerY = gameState.getPlayer().getY() + gameState.getPlayer().getHeight() / 2;
-                // Apply screen shake
-                if (screenShakeTimer > 0) {
-                    playerX += (float)(Math.random() - 0.5) * screenShakeIntensity;
-                    playerY += (float)(Math.random() - 0.5) * screenShakeIntensity;
-                }
-                mapRenderer.setCameraPosition(playerX, playerY);
-            }
-            // Update camera with smooth interpolation (call before render)
-            mapRenderer.update(0.016f); // Approximate deltaTime
-            mapRenderer.render(gameState.getCurrentMap());
+        updateEffectTimers(deltaTime);
+        // Render map first, with the camera following the player
+        Player player = gameState.getPlayer();
+        if (player != null) {
+            renderMap(gameState.getCurrentMap(), true,
+                player.getRenderX() + player.getWidth() / 2,
+                player.getRenderY() + player.getHeight() / 2, deltaTime);
+        } else {
+            renderMap(gameState.getCurrentMap(), false, 0, 0, deltaTime);
         }
         // Set batch to use the same projection matrix as map camera
         batch.setProjectionMatrix(mapRenderer.getCamera().combined);
@@ -130,17 +147,147 @@ public class Renderer {
         batch.setColor(1, 1, 1, 1); // Always normal color
         renderEntities(gameState);
         // Render power-ups
-        renderPowerUps(gameState);
+        renderPowerUps(gameState, deltaTime);
         // Update and render particles (including damage numbers)
         particleSystem.update(deltaTime);
         particleSystem.render(batch, shapeRenderer, font);
         batch.end();
+        mapRenderer.resetViewport();
         // Render HUD (health/speed bars)
-        renderHUD(gameState);
+        if (player != null) {
+            renderHUD(gameState.getEntities().size(), player.getX(), player.getY(),
+                player.getSpeed(), player.getHealth(), player.getMaxHealth());
+        }
         // Render UI elements (dialogue, etc.)
         // renderUI(gameState);
     }
+    /**
+     * Render a snapshot published by the simulation thread.
+     * Entities are interpolated between the snapshot's start and end of
+     * tick positions by how much real time has passed since it was taken.
+     */
+    public void render(RenderSnapshot snapshot, float deltaTime) {
+        if (snapshot == null || snapshot.map == null) {
+            return;
+        }
+        updateEffectTimers(deltaTime);
+        float alpha = snapshot.getAlpha(System.nanoTime());
+        int p = snapshot.playerIndex;
+        if (p >= 0) {
+            renderMap(snapshot.map, true,
+                lerp(snapshot.prevX[p], snapshot.x[p], alpha) + snapshot.width[p] / 2,
+                lerp(snapshot.prevY[p], snapshot.y[p], alpha) + snapshot.height[p] / 2, deltaTime);
+        } else {
+            renderMap(snapshot.map, false, 0, 0, deltaTime);
+        }
+        batch.setProjectionMatrix(mapRenderer.getCamera().combined);
+        batch.begin();
+        batch.setColor(1, 1, 1, 1);
+        for (int i = 0; i < snapshot.count; i++) {
+            float x = lerp(snapshot.prevX[i], snapshot.x[i], alpha);
+            float y = lerp(snapshot.prevY[i], snapshot.y[i], alpha);
+            if (snapshot.kinds[i] == RenderSnapshot.PORTAL) {
+                renderPortal(x, y, snapshot.width[i], snapshot.height[i], snapshot.pulse[i]);
+            } else if (snapshot.regions[i] != null) {
+                batch.draw(snapshot.regions[i], x, y, snapshot.width[i], snapshot.height[i]);
+            }
+        }
+        // Power-ups (spin is purely visual, so it runs on the render clock)
+        powerUpRotation = (powerUpRotation + 180f * deltaTime) % 360f;
+        for (int i = 0; i < snapshot.powerUpCount; i++) {
+            Texture own = snapshot.powerUpTextures[i];
+            if (own == null || powerUpTexture(snapshot.powerUpTypes[i]) == null) continue;
+            batch.setColor(1f, 1f, 1f, 0.9f);
+            batch.draw(own, snapshot.powerUpX[i], snapshot.powerUpY[i], POWER_UP_SIZE / 2, POWER_UP_SIZE / 2,
+                POWER_UP_SIZE, POWER_UP_SIZE, 1f, 1f, powerUpRotation, 0, 0,
+                own.getWidth(), own.getHeight(), false, false);
+            batch.setColor(1f, 1f, 1f, 1f);
+        }
+        particleSystem.update(deltaTime);
+        particleSystem.render(batch, shapeRenderer, font);
+        batch.end();
+        mapRenderer.resetViewport();
+        if (p >= 0) {
+            renderHUD(snapshot.entityCount, snapshot.playerX, snapshot.playerY,
+                snapshot.playerSpeed, snapshot.playerHealth, snapshot.playerMaxHealth);
+        }
+    }
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
+    }
+    /**
+     * Count down flash and shake timers
+     */
+    private void updateEffectTimers(float deltaTime) {
+        if (damageFlashTimer > 0) damageFlashTimer -= deltaTime;
+        if (healFlashTimer > 0) healFlashTimer -= deltaTime;
+        if (screenShakeTimer > 0) {
+            screenShakeTimer -= deltaTime;
+            screenShakeIntensity = screenShakeTimer * 10f; // Decay intensity
+        }
+    }
+    /**
+     * Move the camera towards the focus point (plus screen shake) and draw
+     * the map; the world viewport stays applied until the HUD
+     */
+    private void renderMap(GameMap map, boolean hasFocus, float focusX, float focusY, float deltaTime) {
+        mapRenderer.applyViewport();
+        if (map == null) {
+            return;
+        }
+        if (hasFocus) {
+            // Apply screen shake
+            if (screenShakeTimer > 0) {
+                focusX += (float)(Math.random() - 0.5) * screenShakeIntensity;
+                focusY += (float)(Math.random() - 0.5) * screenShakeIntensity;
+            }
+            mapRenderer.setCameraPosition(focusX, focusY);
+        }
+        // Update camera with smooth interpolation (call before render)
+        mapRenderer.update(deltaTime);
+        mapRenderer.render(map);
+    }
+    /**
+     * Pulsing portal rectangle (same look as Portal.render)
+     */
+    private void renderPortal(float x, float y, float width, float height, float pulse) {
+        batch.end();
+        shapeRenderer.setProjectionMatrix(batch.getProjectionMatrix());
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.2f, 0.6f, 1.0f, 0.3f + (float)Math.sin(pulse) * 0.2f);
+        shapeRenderer.rect(x, y, width, height);
+        shapeRenderer.end();
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.setColor(0.4f, 0.8f, 1.0f, 0.8f);
+        shapeRenderer.rect(x, y, width, height);
+        shapeRenderer.end();
+        batch.begin();
+    }
+    private Texture powerUpTexture(PowerUp.Type type) {
+        switch (type) {
+            case HP:
+                return powerupHealthTexture;
+            case DMG:
+                return powerupDamageTexture;
+            case SHLD:
+                return powerupShieldTexture;
+            default:
+                return null;
+        }
+    }
+    /**
+     * Check if the caller is on the render thread. If not, the effect is
+     * posted to run there at the start of the next frame.
+     */
+    private boolean onRenderThread(Runnable effect) {
+        if (Thread.currentThread() == renderThread) {
+            return true;
+        }
+        Gdx.app.postRunnable(effect);
+        return false;
+    }
     public void dmgFlash() {
+        if (!onRenderThread(this::dmgFlash)) return;
         damageFlashTimer = 0.2f;
         screenShakeTimer = 0.3f;
         screenShakeIntensity = 5f;
@@ -149,62 +296,75 @@ public class Renderer {
         }
     }
     public void createDamageEffect(float x, float y) {
+        if (!onRenderThread(() -> createDamageEffect(x, y))) return;
         dmgFlash();
         shake(8f);
         particleSystem.createDamageEffect(x, y);
     }
     public void createDamageEffect(float x, float y, int damage) {
+        if (!onRenderThread(() -> createDamageEffect(x, y, damage))) return;
         dmgFlash();
         shake(8f);
         particleSystem.createDamageEffect(x, y);
         particleSystem.createDamageNumber(x, y, damage);
     }
     public void triggerHealFlash() {
+        if (!onRenderThread(this::triggerHealFlash)) return;
         healFlashTimer = 0.3f;
         if (healSound != null) {
             healSound.play(0.6f);
         }
     }
     public void createHealEffect(float x, float y) {
+        if (!onRenderThread(() -> createHealEffect(x, y))) return;
         triggerHealFlash();
         particleSystem.createHealEffect(x, y);
     }
     public void createHealEffect(float x, float y, int healAmount) {
+        if (!onRenderThread(() -> createHealEffect(x, y, healAmount))) return;
         triggerHealFlash();
         particleSystem.createHealEffect(x, y);
         particleSystem.createHealNumber(x, y, healAmount);
     }
     public void createPortalEffect(float x, float y) {
+        if (!onRenderThread(() -> createPortalEffect(x, y))) return;
         particleSystem.createPortalEffect(x, y);
     }
     public void shake(float i) {
+        if (!onRenderThread(() -> shake(i))) return;
         mapRenderer.shake(i);
     }
     /**
      * Create critical hit effect
      */
     public void createCritEffect(float x, float y) {
+        if (!onRenderThread(() -> createCritEffect(x, y))) return;
         particleSystem.createCritEffect(x, y);
     }
+    /**
+     * Seed the particle effects (same seed, same effects on a replay)
+     */
+    public void setEffectSeed(long seed) {
+        if (!onRenderThread(() -> setEffectSeed(seed))) return;
+        particleSystem.setSeed(seed);
+    }
     /**
      * Render HUD elements (health bars, speed indicators, etc.)
      */
-    private void renderHUD(GameState gameState) {
-        Player player = gameState.getPlayer();
-        if (player == null) return;
+    private void renderHUD(int entityCount, float playerX, float playerY, float speed, float health, float maxHealth) {
         // Use screen coordinates (not world coordinates)
         batch.setProjectionMatrix(batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
         batch.begin();
         // Draw entity count
         font.setColor(Color.WHITE);
-        font.draw(batch, "Entities: " + gameState.getEntities().size(), 10, Gdx.graphics.getHeight() - 10);
+        font.draw(batch, "Entities: " + entityCount, 10, Gdx.graphics.getHeight() - 10);
         // Draw player position
-        font.draw(batch, String.format("Position: (%.0f, %.0f)", player.getX(), player.getY()), 10, Gdx.graphics.getHeight() - 35);
+        font.draw(batch, String.format("Position: (%.0f, %.0f)", playerX, playerY), 10, Gdx.graphics.getHeight() - 35);
         // Draw player speed
-        font.draw(batch, "Speed: " + (int)player.getSpeed(), 10, Gdx.graphics.getHeight() - 60);
+        font.draw(batch, "Speed: " + (int)speed, 10, Gdx.graphics.getHeight() - 60);
         // Draw health text on health bar
         font.setColor(Color.WHITE);
-        String healthText = String.format("HP: %.0f / %.0f", player.getHealth(), player.getMaxHealth());
+        String healthText = String.format("HP: %.0f / %.0f", health, maxHealth);
         font.draw(batch, healthText, 15, Gdx.graphics.getHeight() - 83);
         batch.end();
         // Draw health bar
@@ -214,7 +374,7 @@ public class Renderer {
         shapeRenderer.setColor(Color.DARK_GRAY);
         shapeRenderer.rect(10, Gdx.graphics.getHeight() - 100, 200, 20);
         // Health bar (green) - REAL-TIME health display
-        float healthPercent = player.getHealth() / player.getMaxHealth();
+        float healthPercent = health / maxHealth;
         shapeRenderer.setColor(Color.GREEN);
         shapeRenderer.rect(10, Gdx.graphics.getHeight() - 100, 200 * healthPercent, 20);
         // Health bar border (white)
@@ -228,7 +388,7 @@ public class Renderer {
         shapeRenderer.setColor(Color.DARK_GRAY);
         shapeRenderer.rect(10, Gdx.graphics.getHeight() - 130, 200, 15);
         shapeRenderer.setColor(Color.CYAN);
-        float speedPercent = player.getSpeed() / 300f; // Max speed assumption
+        float speedPercent = speed / 300f; // Max speed assumption
         shapeRenderer.rect(10, Gdx.graphics.getHeight() - 130, 200 * speedPercent, 15);
         shapeRenderer.end();
     }
@@ -236,17 +396,18 @@ public class Renderer {
      * Render all entities
      */
     private void renderEntities(GameState gameState) {
-        for (Entity entity : gameState.getEntities()) {
-            if (entity.isActive()) {
+        EntityStore store = gameState.getStore();
+        for (int i = 0; i < store.size(); i++) {
+            if (store.isActive(i)) {
                 // Entities will render themselves with textures
-                entity.render(batch);
+                store.get(i).render(batch);
             }
         }
     }
     /**
      * Render all active power-ups
      */
-    private void renderPowerUps(GameState gameState) {
+    private void renderPowerUps(GameState gameState, float deltaTime) {
         for (com.adventurequest.model.entities.PowerUp powerUp : gameState.getPowerUps()) {
             if (!powerUp.isCollected()) {
                 com.badlogic.gdx.graphics.Texture texture = null;
@@ -262,18 +423,25 @@ public class Renderer {
                         break;
                 }
                 if (texture != null) {
-                    powerUp.update(0.016f); // Update animation
+                    powerUp.update(deltaTime); // Update animation
                     powerUp.render(batch);
                 }
             }
         }
     }
+    /**
+     * Camera following the player
+     */
+    public OrthographicCamera getCamera() {
+        return mapRenderer.getCamera();
+    }
     /**
      * Handle window resize
      */
     public void resize(int width, int height) {
         this.screenWidth = width;
         this.screenHeight = height;
+        mapRenderer.resize(width, height);
     }
     /**
      * Clean up resources
@@ -283,10 +451,10 @@ public class Renderer {
         mapRenderer.dispose();
         particleSystem.dispose();
         // Dispose sound effects
-        if (damageSound != null) {
+        if (ownsSounds && damageSound != null) {
             damageSound.dispose();
         }
-        if (healSound != null) {
+        if (ownsSounds && healSound != null) {
             healSound.dispose();
         }
     }
@@ -27,6 +27,8 @@ public class SaveLoadScreen {
     private boolean isConfirming;
     private String confirmMessage;
     private Texture[] bgTextures;
+    // Backgrounds loaded by this screen (not shared through the AssetManager)
+    private boolean ownsBackgrounds;
     private int currentBgIndex;
     private final Color tint = new Color(0, 0, 0, 0.25f);
     private Texture px;
@@ -44,6 +46,12 @@ public class SaveLoadScreen {
         }
     }
     public SaveLoadScreen(ScreenType screenType) {
+        this(screenType, null);
+    }
+    /**
+     * @param backgrounds Preloaded backgrounds (see AssetManifest), or null to load them here
+     */
+    public SaveLoadScreen(ScreenType screenType, Texture[] backgrounds) {
         this.screenType = screenType;
         this.font = new BitmapFont();
         this.titleFont = new BitmapFont();
@@ -55,7 +63,13 @@ public class SaveLoadScreen {
         font.getData().setScale(2.0f);
         titleFont.getData().setScale(3.0f);
         px = makePixel();
-        loadBackgrounds();
+        if (backgrounds != null) {
+            bgTextures = backgrounds;
+            currentBgIndex = (int)(Math.random() * backgrounds.length);
+        } else {
+            loadBackgrounds();
+            ownsBackgrounds = true;
+        }
         loadSaveSlots();
     }
 
@@ -218,9 +232,11 @@ public class SaveLoadScreen {
         if (px != null) {
             px.dispose();
         }
-        for (Texture bg : bgTextures) {
-            if (bg != null) {
-                bg.dispose();
+        if (ownsBackgrounds) {
+            for (Texture bg : bgTextures) {
+                if (bg != null) {
+                    bg.dispose();
+                }
             }
         }
     }
@@ -13,7 +13,17 @@ public class DesktopLauncher {
         config.setWindowedMode(800, 600);
         config.setForegroundFPS(60);
         config.useVsync(true);
+        // --threaded-sim runs the simulation on its own thread
+        boolean threadedSimulation = java.util.Arrays.asList(args).contains("--threaded-sim");
+        AdventureQuestGame game = new AdventureQuestGame(threadedSimulation);
+        // --parallel-collisions splits the collision narrowphase over cores on large scenes
+        game.setParallelCollisions(java.util.Arrays.asList(args).contains("--parallel-collisions"));
+        // --record <file> writes the game's input log (replay with ReplayLauncher)
+        int record = java.util.Arrays.asList(args).indexOf("--record");
+        if (record >= 0 && record + 1 < args.length) {
+            game.setRecordPath(args[record + 1]);
+        }
         // Launch the game
-        new Lwjgl3Application(new AdventureQuestGame(), config);
+        new Lwjgl3Application(game, config);
     }
 }
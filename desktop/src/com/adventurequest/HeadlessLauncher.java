@@ -0,0 +1,34 @@
+package com.adventurequest;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+/**
+ * Headless Launcher for Adventure Quest Engine
+ * Runs the simulation without a window (no display needed)
+ *
+ * Usage: HeadlessLauncher [--parallel-collisions] [map.tmx] [ticks] [tickRate]
+ * Exits with status 1 if the map could not be loaded.
+ */
+public class HeadlessLauncher {
+    public static void main(String[] args) {
+        // --parallel-collisions stress-tests the parallel narrowphase on large maps
+        java.util.List<String> argList = new java.util.ArrayList<>(java.util.Arrays.asList(args));
+        boolean parallelCollisions = argList.remove("--parallel-collisions");
+        args = argList.toArray(new String[0]);
+        String mapPath = args.length > 0 ? args[0] : "maps/battle_arena.tmx";
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : 36000;
+        int tickRate = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // The simulation runs its ticks inside create(), so the loop rate barely matters
+        config.updatesPerSecond = -1;
+        HeadlessSimulation simulation = new HeadlessSimulation(mapPath, ticks, tickRate) {
+            @Override
+            public void dispose() {
+                if (!isSucceeded()) {
+                    System.exit(1);
+                }
+            }
+        };
+        simulation.setParallelCollisions(parallelCollisions);
+        new HeadlessApplication(simulation, config);
+    }
+}
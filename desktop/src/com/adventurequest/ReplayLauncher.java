@@ -0,0 +1,29 @@
+package com.adventurequest;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+/**
+ * Replay Launcher for Adventure Quest Engine
+ * Replays an input log recorded with DesktopLauncher --record <file>
+ *
+ * Usage: ReplayLauncher <file>
+ * Exits with status 1 if the log could not be replayed or the replay diverged.
+ */
+public class ReplayLauncher {
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayLauncher <input log>");
+            System.exit(1);
+        }
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // The replay runs its ticks inside create(), so the loop rate barely matters
+        config.updatesPerSecond = -1;
+        new HeadlessApplication(new ReplaySimulation(args[0]) {
+            @Override
+            public void dispose() {
+                if (!isSucceeded()) {
+                    System.exit(1);
+                }
+            }
+        }, config);
+    }
+}